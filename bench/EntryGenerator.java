@@ -0,0 +1,136 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates synthetic point exports in all five input formats of {@link HogwartsApp}.
+ *
+ * Parameters:
+ * <ul>
+ *     <li>{@code zeilen} - the number of entries</li>
+ *     <li>{@code studenten} / {@code lehrer} - the number of distinct student and teacher names</li>
+ *     <li>{@code skew} - how unevenly entries are spread over the houses: house {@code i} is picked with weight
+ *     {@code 1 / (i + 1)^skew}, so {@code 0} spreads them evenly</li>
+ * </ul>
+ * The same seed always produces the same data, so results of different runs are comparable.
+ *
+ * Example:
+ * <pre>
+ *     EntryGenerator generator = new EntryGenerator(1_000_000, 5_000, 40, 0.5, 42);
+ *     generator.schreibeCSV(Path.of("punkte.csv"));
+ * </pre>
+ */
+public final class EntryGenerator {
+    private static final Haus[] HAEUSER = Haus.values();
+
+    private final int zeilen;
+    private final int studenten;
+    private final int lehrer;
+    private final double[] hausVerteilung = new double[HAEUSER.length];
+    private final long seed;
+
+    public EntryGenerator(int zeilen, int studenten, int lehrer, double skew, long seed) {
+        this.zeilen = zeilen;
+        this.studenten = studenten;
+        this.lehrer = lehrer;
+        this.seed = seed;
+
+        double summe = 0;
+        for (int i = 0; i < HAEUSER.length; i++) {
+            summe += 1 / Math.pow(i + 1, skew);
+            hausVerteilung[i] = summe;
+        }
+        for (int i = 0; i < HAEUSER.length; i++) {
+            hausVerteilung[i] /= summe;
+        }
+    }
+
+    public int zeilen() {
+        return zeilen;
+    }
+
+    /**
+     * Writes the entries in the {@code &} separated format of {@link HogwartsApp#leseDatei(String)}.
+     */
+    public void schreibeDatei(Path path) throws IOException {
+        schreibe(path, null, (out, e) -> out.append(e.getId()).append('&').append(e.getStudentName()).append('&')
+                .append(e.getHaus().name()).append('&').append(e.getLehrerName()).append('&').append(e.getPunkte()).append('\n'), null);
+    }
+
+    public void schreibeCSV(Path path) throws IOException {
+        schreibe(path, "id,studentName,haus,lehrerName,punkte\n", (out, e) -> out.append(e.getId()).append(',')
+                .append(e.getStudentName()).append(',').append(e.getHaus().name()).append(',').append(e.getLehrerName())
+                .append(',').append(e.getPunkte()).append('\n'), null);
+    }
+
+    public void schreibeTSV(Path path) throws IOException {
+        schreibe(path, "id\tstudentName\thaus\tlehrerName\tpunkte\n", (out, e) -> out.append('"').append(e.getId())
+                .append("\"\t\"").append(e.getStudentName()).append("\"\t\"").append(e.getHaus().name()).append("\"\t\"")
+                .append(e.getLehrerName()).append("\"\t\"").append(e.getPunkte()).append("\"\n"), null);
+    }
+
+    public void schreibeJSON(Path path) throws IOException {
+        boolean[] erstes = {true};
+        schreibe(path, "[\n", (out, e) -> {
+            out.append(erstes[0] ? "" : ",\n").append("  {\n    \"id\": ").append(e.getId())
+                    .append(",\n    \"studentName\": \"").append(e.getStudentName())
+                    .append("\",\n    \"haus\": \"").append(e.getHaus().name())
+                    .append("\",\n    \"lehrerName\": \"").append(e.getLehrerName())
+                    .append("\",\n    \"punkte\": ").append(e.getPunkte()).append("\n  }");
+            erstes[0] = false;
+        }, "\n]\n");
+    }
+
+    public void schreibeXML(Path path) throws IOException {
+        schreibe(path, "<entries>\n", (out, e) -> out.append("    <entry>\n        <id>").append(e.getId())
+                .append("</id>\n        <studentName>").append(e.getStudentName())
+                .append("</studentName>\n        <haus>").append(e.getHaus().name())
+                .append("</haus>\n        <lehrerName>").append(e.getLehrerName())
+                .append("</lehrerName>\n        <punkte>").append(e.getPunkte())
+                .append("</punkte>\n    </entry>\n"), "</entries>\n");
+    }
+
+    private void schreibe(Path path, String kopf, Format format, String fuss) throws IOException {
+        Random random = new Random(seed);
+        StringBuilder zeile = new StringBuilder(256);
+        Entry entry = new Entry(0,null,null,null,0);
+
+        try (BufferedWriter out = Files.newBufferedWriter(path)) {
+            if (kopf != null) {
+                out.write(kopf);
+            }
+            for (int i = 1; i <= zeilen; i++) {
+                naechster(random, i, entry);
+                zeile.setLength(0);
+                format.schreibe(zeile, entry);
+                out.append(zeile);
+            }
+            if (fuss != null) {
+                out.write(fuss);
+            }
+        }
+    }
+
+    private void naechster(Random random, int id, Entry entry) {
+        int student = random.nextInt(studenten);
+        double wurf = random.nextDouble();
+        int haus = 0;
+        while (haus < HAEUSER.length - 1 && wurf > hausVerteilung[haus]) {
+            haus++;
+        }
+
+        entry.setId(id);
+        // spread the first letters over the alphabet for prefix queries
+        entry.setStudentName((char) ('A' + student % 26) + "student " + student);
+        entry.setHaus(HAEUSER[haus]);
+        entry.setLehrerName("Lehrer " + random.nextInt(lehrer));
+        entry.setPunkte(random.nextInt(61) - 20);
+    }
+
+    @FunctionalInterface
+    private interface Format {
+        void schreibe(StringBuilder out, Entry entry);
+    }
+}
@@ -0,0 +1,241 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures every reader and writer of {@link HogwartsApp} on synthetic data from an {@link EntryGenerator}.
+ * Each benchmark runs a number of warm-up iterations followed by measured iterations and reports the per-call
+ * latency (mean, p50, p99), the throughput in rows per second and the bytes allocated per call, summed over all
+ * threads so the parallel readers are covered as well.
+ *
+ * Usage:
+ * <pre>
+ *     java -cp out HogwartsBenchmark --zeilen=1000000 --studenten=5000 --lehrer=40 --skew=0.5 \
+ *             --warmup=3 --iterationen=10 --filter=lese --json=bench-results.json
+ * </pre>
+ * All options are optional. {@code --filter} runs only benchmarks whose name contains the given text and
+ * {@code --json} additionally writes the results as a JSON array, to be kept next to the results of earlier releases.
+ */
+public final class HogwartsBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Keeps results reachable so the JIT cannot drop the measured work. */
+    private static volatile Object senke;
+
+    private final int warmup;
+    private final int iterationen;
+    private final String filter;
+    private final List<Ergebnis> ergebnisse = new ArrayList<>();
+
+    private HogwartsBenchmark(int warmup, int iterationen, String filter) {
+        this.warmup = warmup;
+        this.iterationen = iterationen;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int zeilen = 1_000_000;
+        int studenten = 5_000;
+        int lehrer = 40;
+        double skew = 0;
+        int warmup = 3;
+        int iterationen = 10;
+        int parallelitaet = Runtime.getRuntime().availableProcessors();
+        String filter = "";
+        Path json = null;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--zeilen": zeilen = Integer.parseInt(option[1]); break;
+                case "--studenten": studenten = Integer.parseInt(option[1]); break;
+                case "--lehrer": lehrer = Integer.parseInt(option[1]); break;
+                case "--skew": skew = Double.parseDouble(option[1]); break;
+                case "--warmup": warmup = Integer.parseInt(option[1]); break;
+                case "--iterationen": iterationen = Integer.parseInt(option[1]); break;
+                case "--parallelitaet": parallelitaet = Integer.parseInt(option[1]); break;
+                case "--filter": filter = option[1]; break;
+                case "--json": json = Path.of(option[1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        Path verzeichnis = Files.createTempDirectory("hogwarts-bench");
+        try {
+            HogwartsBenchmark benchmark = new HogwartsBenchmark(warmup, iterationen, filter);
+            benchmark.fuehreAus(new EntryGenerator(zeilen, studenten, lehrer, skew, 42), verzeichnis, parallelitaet);
+            benchmark.drucke();
+            System.out.println(NameInterner.gemeinsam().statistik());
+            if (json != null) {
+                benchmark.schreibeJSON(json);
+                System.out.println("Results written to: " + json);
+            }
+        } finally {
+            try (var dateien = Files.list(verzeichnis)) {
+                for (Path datei : (Iterable<Path>) dateien::iterator) {
+                    Files.delete(datei);
+                }
+            }
+            Files.delete(verzeichnis);
+        }
+    }
+
+    private void fuehreAus(EntryGenerator generator, Path verzeichnis, int parallelitaet) throws Exception {
+        HogwartsApp app = new HogwartsApp();
+        int zeilen = generator.zeilen();
+        String txt = verzeichnis.resolve("punkte.txt").toString();
+        String csv = verzeichnis.resolve("punkte.csv").toString();
+        String tsv = verzeichnis.resolve("punkte.tsv").toString();
+        String json = verzeichnis.resolve("punkte.json").toString();
+        String xml = verzeichnis.resolve("punkte.xml").toString();
+        String snapshot = verzeichnis.resolve("punkte.hgws").toString();
+        String ausgabe = verzeichnis.resolve("ergebnis.txt").toString();
+
+        System.out.println("Generating " + zeilen + " entries in " + verzeichnis);
+        generator.schreibeDatei(Path.of(txt));
+        generator.schreibeCSV(Path.of(csv));
+        generator.schreibeTSV(Path.of(tsv));
+        generator.schreibeJSON(Path.of(json));
+        generator.schreibeXML(Path.of(xml));
+
+        messe("leseDatei", zeilen, () -> app.leseDatei(txt));
+        messe("leseCSV", zeilen, () -> app.leseCSV(csv));
+        messe("leseTSV", zeilen, () -> app.leseTSV(tsv));
+        messe("leseJSON", zeilen, () -> app.leseJSON(json));
+        messe("leseXML", zeilen, () -> app.leseXML(xml));
+        messe("leseCSVStream", zeilen, () -> {
+            try (var entries = app.leseCSVStream(csv)) {
+                return entries.count();
+            }
+        });
+        messe("leseCSVParallel", zeilen, () -> app.leseCSVParallel(csv, parallelitaet));
+        messe("leseCSVTabelle", zeilen, () -> app.leseCSVTabelle(csv));
+
+        EntryTable tabelle = app.leseCSVTabelle(csv);
+        app.schreibeSnapshot(snapshot, tabelle);
+        messe("leseSnapshot", zeilen, () -> {
+            HausAggregator punkte = new HausAggregator();
+            app.leseSnapshot(snapshot).forEach(punkte);
+            return punkte;
+        });
+
+        List<Entry> entries = app.leseCSV(csv);
+        messe("aggregation.liste", zeilen, () -> HausAggregator.von(entries.stream()));
+        messe("aggregation.tabelle", zeilen, () -> HausAggregator.von(tabelle));
+        messe("aggregation.parallel", zeilen, () -> HausAggregator.parallel(entries, parallelitaet));
+        messe("schreibeDatei", zeilen, () -> {
+            app.schreibeDatei(ausgabe, entries);
+            return ausgabe;
+        });
+        messe("schreibeCSV", zeilen, () -> {
+            app.schreibeCSV(ausgabe, entries);
+            return ausgabe;
+        });
+    }
+
+    private void messe(String name, int zeilen, Operation operation) throws Exception {
+        if (!name.contains(filter)) {
+            return;
+        }
+        System.out.print(name + " ...");
+
+        for (int i = 0; i < warmup; i++) {
+            senke = operation.ausfuehren();
+        }
+
+        long[] nanos = new long[iterationen];
+        long allokiert = 0;
+        for (int i = 0; i < iterationen; i++) {
+            System.gc();
+            long bytesVorher = allokiert();
+            long start = System.nanoTime();
+            senke = operation.ausfuehren();
+            nanos[i] = System.nanoTime() - start;
+            allokiert += allokiert() - bytesVorher;
+        }
+        senke = null;
+
+        Ergebnis ergebnis = new Ergebnis(name, zeilen, nanos, allokiert / iterationen);
+        ergebnisse.add(ergebnis);
+        System.out.println(" " + ergebnis.formatiere());
+    }
+
+    private static long allokiert() {
+        return THREADS.getTotalThreadAllocatedBytes();
+    }
+
+    private void drucke() {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %10s %10s %10s %14s %14s%n", "Benchmark", "mean ms", "p50 ms", "p99 ms", "rows/s", "bytes/row");
+        for (Ergebnis e : ergebnisse) {
+            System.out.printf(Locale.ROOT, "%-22s %10.2f %10.2f %10.2f %14.0f %14.1f%n",
+                    e.name, e.mittel / 1e6, e.p50 / 1e6, e.p99 / 1e6, e.zeilenProSekunde(), (double) e.bytesProAufruf / e.zeilen);
+        }
+    }
+
+    private void schreibeJSON(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path)) {
+            out.write("[\n");
+            for (int i = 0; i < ergebnisse.size(); i++) {
+                Ergebnis e = ergebnisse.get(i);
+                out.write(String.format(Locale.ROOT,
+                        "  {\"benchmark\": \"%s\", \"zeilen\": %d, \"iterationen\": %d, \"meanMs\": %.3f, \"p50Ms\": %.3f, "
+                                + "\"p99Ms\": %.3f, \"zeilenProSekunde\": %.0f, \"bytesProAufruf\": %d}%s%n",
+                        e.name, e.zeilen, e.nanos.length, e.mittel / 1e6, e.p50 / 1e6, e.p99 / 1e6,
+                        e.zeilenProSekunde(), e.bytesProAufruf, i + 1 < ergebnisse.size() ? "," : ""));
+            }
+            out.write("]\n");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object ausfuehren() throws Exception;
+    }
+
+    private static final class Ergebnis {
+        final String name;
+        final int zeilen;
+        final long[] nanos;
+        final long bytesProAufruf;
+        final double mittel;
+        final long p50;
+        final long p99;
+
+        Ergebnis(String name, int zeilen, long[] nanos, long bytesProAufruf) {
+            this.name = name;
+            this.zeilen = zeilen;
+            this.nanos = nanos;
+            this.bytesProAufruf = bytesProAufruf;
+            this.mittel = Arrays.stream(nanos).average().orElse(0);
+
+            long[] sortiert = nanos.clone();
+            Arrays.sort(sortiert);
+            this.p50 = perzentil(sortiert, 0.50);
+            this.p99 = perzentil(sortiert, 0.99);
+        }
+
+        double zeilenProSekunde() {
+            return mittel == 0 ? 0 : zeilen / (mittel / 1e9);
+        }
+
+        String formatiere() {
+            return String.format(Locale.ROOT, "%.2f ms/op, %.0f rows/s, %d bytes/op", mittel / 1e6, zeilenProSekunde(), bytesProAufruf);
+        }
+
+        private static long perzentil(long[] sortiert, double anteil) {
+            int index = (int) Math.ceil(anteil * sortiert.length) - 1;
+            return sortiert[Math.max(0, Math.min(index, sortiert.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the write throughput of {@link PunkteLedger} for a growing number of writer threads while one reader
+ * thread takes {@link PunkteLedger#snapshot()}s continuously. For comparison the same load runs against a
+ * {@link HausAggregator} and a {@link HashMap} guarded by one lock, which is what sharing the existing classes
+ * between threads would need.
+ *
+ * Usage:
+ * <pre>
+ *     java -cp out PunkteLedgerBenchmark --threads=1,2,4,8,16,32,64 --awards=4000000 --studenten=10000
+ * </pre>
+ * {@code --awards} is the total number of awards per run, split evenly between the writer threads.
+ */
+public final class PunkteLedgerBenchmark {
+    private static final Haus[] HAEUSER = Haus.values();
+
+    public static void main(String[] args) throws Exception {
+        int[] threads = {1, 2, 4, 8, 16, 32, 64};
+        int awards = 4_000_000;
+        int studenten = 10_000;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--threads": threads = Arrays.stream(option[1].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "--awards": awards = Integer.parseInt(option[1]); break;
+                case "--studenten": studenten = Integer.parseInt(option[1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        String[] namen = new String[studenten];
+        for (int i = 0; i < studenten; i++) {
+            namen[i] = "Student " + i;
+        }
+
+        System.out.printf(Locale.ROOT, "%-8s %-12s %16s %14s%n", "threads", "variant", "awards/s", "snapshots/s");
+        for (int anzahl : threads) {
+            // The first round only warms up the JIT
+            messe(new Gesperrt(), anzahl, awards / 4, namen);
+            messe(new Ledger(), anzahl, awards / 4, namen);
+
+            drucke(anzahl, "locked", messe(new Gesperrt(), anzahl, awards, namen));
+            drucke(anzahl, "ledger", messe(new Ledger(), anzahl, awards, namen));
+        }
+    }
+
+    private static void drucke(int threads, String variante, double[] ergebnis) {
+        System.out.printf(Locale.ROOT, "%-8d %-12s %16.0f %14.0f%n", threads, variante, ergebnis[0], ergebnis[1]);
+    }
+
+    /**
+     * Runs {@code awards} awards on {@code threads} writer threads next to one snapshot reader and checks the final
+     * totals.
+     *
+     * @return the awards per second and the snapshots per second
+     */
+    private static double[] messe(Variante variante, int threads, int awards, String[] namen) throws InterruptedException {
+        int proThread = awards / threads;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean fertig = new AtomicBoolean();
+        long[] snapshots = new long[1];
+
+        Thread leser = new Thread(() -> {
+            while (!fertig.get()) {
+                variante.snapshot();
+                snapshots[0]++;
+            }
+        });
+
+        List<Thread> schreiber = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            schreiber.add(new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < proThread; i++) {
+                    variante.award(namen[random.nextInt(namen.length)], HAEUSER[i & 3], 1);
+                }
+            }));
+        }
+        schreiber.forEach(Thread::start);
+        leser.start();
+
+        long beginn = System.nanoTime();
+        start.countDown();
+        for (Thread thread : schreiber) {
+            thread.join();
+        }
+        double sekunden = (System.nanoTime() - beginn) / 1e9;
+        fertig.set(true);
+        leser.join();
+
+        HausAggregator stand = variante.snapshot();
+        long summe = 0;
+        for (Haus haus : HAEUSER) {
+            summe += stand.summe(haus);
+        }
+        if (summe != (long) proThread * threads) {
+            throw new IllegalStateException("Lost awards: expected " + (long) proThread * threads + " but counted " + summe);
+        }
+        return new double[] {proThread * (double) threads / sekunden, snapshots[0] / sekunden};
+    }
+
+    private interface Variante {
+        void award(String studentName, Haus haus, int punkte);
+
+        HausAggregator snapshot();
+    }
+
+    private static final class Ledger implements Variante {
+        private final PunkteLedger ledger = new PunkteLedger();
+
+        @Override
+        public void award(String studentName, Haus haus, int punkte) {
+            ledger.award(studentName, haus, null, punkte);
+        }
+
+        @Override
+        public HausAggregator snapshot() {
+            return ledger.snapshot();
+        }
+    }
+
+    private static final class Gesperrt implements Variante {
+        private final HausAggregator punkte = new HausAggregator();
+        private final Map<String, Long> studenten = new HashMap<>();
+
+        @Override
+        public synchronized void award(String studentName, Haus haus, int punkte) {
+            this.punkte.add(haus, punkte);
+            studenten.merge(studentName, (long) punkte, Long::sum);
+        }
+
+        @Override
+        public synchronized HausAggregator snapshot() {
+            return new HausAggregator().merge(punkte);
+        }
+    }
+}
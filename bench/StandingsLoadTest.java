@@ -0,0 +1,146 @@
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for the {@link StandingsServer}. Starts a server on synthetic data from an {@link EntryGenerator}, or
+ * targets a running one with {@code --url}, and sends requests from concurrent clients on virtual threads.
+ * Reports the p50, p99 and maximum latency per endpoint and the overall throughput.
+ *
+ * Usage:
+ * <pre>
+ *     java -cp out StandingsLoadTest --zeilen=1000000 --clients=64 --anfragen=2000
+ *     java -cp out StandingsLoadTest --url=http://localhost:8080 --clients=16
+ * </pre>
+ */
+public final class StandingsLoadTest {
+    private static final String[] PFADE = {
+            "/standings", "/standings.csv", "/studenten?prefix=A", "/studenten?prefix=Bstudent%201", "/haus/Gryffindor"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int zeilen = 1_000_000;
+        int clients = 64;
+        int anfragen = 2_000;
+        int warmup = 500;
+        String url = null;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "--zeilen": zeilen = Integer.parseInt(option[1]); break;
+                case "--clients": clients = Integer.parseInt(option[1]); break;
+                case "--anfragen": anfragen = Integer.parseInt(option[1]); break;
+                case "--warmup": warmup = Integer.parseInt(option[1]); break;
+                case "--url": url = option[1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+
+        StandingsServer server = null;
+        if (url == null) {
+            // Measure the in-process server with the same setting as Main --server; it is read once, on first use
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            Path csv = Files.createTempFile("hogwarts-load", ".csv");
+            try {
+                new EntryGenerator(zeilen, 5_000, 40, 0, 42).schreibeCSV(csv);
+                server = new StandingsServer(new HogwartsApp().leseCSV(csv.toString()), new InetSocketAddress("localhost", 0));
+            } finally {
+                Files.delete(csv);
+            }
+            url = "http://localhost:" + server.port();
+        }
+
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            System.out.println("Warming up " + url);
+            last(client, url, clients, warmup);
+
+            System.out.println("Measuring " + clients + " clients x " + anfragen + " requests");
+            long start = System.nanoTime();
+            List<long[]> latenzen = last(client, url, clients, anfragen);
+            double sekunden = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf(Locale.ROOT, "%-30s %10s %10s %10s %10s%n", "Endpoint", "requests", "p50 ms", "p99 ms", "max ms");
+            for (int p = 0; p < PFADE.length; p++) {
+                long[] sortiert = latenzen.get(p);
+                Arrays.sort(sortiert);
+                System.out.printf(Locale.ROOT, "%-30s %10d %10.3f %10.3f %10.3f%n", PFADE[p], sortiert.length,
+                        perzentil(sortiert, 0.50) / 1e6, perzentil(sortiert, 0.99) / 1e6, sortiert[sortiert.length - 1] / 1e6);
+            }
+            System.out.printf(Locale.ROOT, "%d requests in %.2f s, %.0f requests/s%n", (long) clients * anfragen, sekunden,
+                    clients * (double) anfragen / sekunden);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Lets every client send {@code anfragen} requests, cycling through the endpoints, and returns the latencies in
+     * nanoseconds per endpoint.
+     */
+    private static List<long[]> last(HttpClient client, String url, int clients, int anfragen) throws Exception {
+        HttpRequest[] requests = new HttpRequest[PFADE.length];
+        for (int p = 0; p < PFADE.length; p++) {
+            requests[p] = HttpRequest.newBuilder(URI.create(url + PFADE[p])).GET().build();
+        }
+
+        List<Future<long[]>> ergebnisse = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int versatz = c;
+                ergebnisse.add(executor.submit(() -> {
+                    long[] nanos = new long[anfragen];
+                    for (int i = 0; i < anfragen; i++) {
+                        long start = System.nanoTime();
+                        HttpResponse<byte[]> antwort = client.send(requests[(versatz + i) % PFADE.length], HttpResponse.BodyHandlers.ofByteArray());
+                        nanos[i] = System.nanoTime() - start;
+                        if (antwort.statusCode() != 200) {
+                            throw new IllegalStateException("Unexpected status " + antwort.statusCode() + " for " + antwort.uri());
+                        }
+                    }
+                    return nanos;
+                }));
+            }
+        }
+
+        // Sort the latencies of every client into the endpoint each request went to
+        List<List<Long>> proPfad = new ArrayList<>();
+        for (int p = 0; p < PFADE.length; p++) {
+            proPfad.add(new ArrayList<>());
+        }
+        for (int c = 0; c < clients; c++) {
+            long[] nanos = ergebnisse.get(c).get();
+            for (int i = 0; i < nanos.length; i++) {
+                proPfad.get((c + i) % PFADE.length).add(nanos[i]);
+            }
+        }
+        List<long[]> latenzen = new ArrayList<>();
+        for (List<Long> werte : proPfad) {
+            latenzen.add(werte.stream().mapToLong(Long::longValue).toArray());
+        }
+        return latenzen;
+    }
+
+    private static long perzentil(long[] sortiert, double anteil) {
+        int index = (int) Math.ceil(anteil * sortiert.length) - 1;
+        return sortiert[Math.max(0, Math.min(index, sortiert.length - 1))];
+    }
+}
@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Shared buffer handling for the hand-written text scanners {@link XMLEntryIterator} and {@link JSONEntryIterator}.
+ * Characters are read from the {@link Reader} into one reusable array. A scanner can set {@link #marke} to keep a
+ * region in the array while it is being scanned, so values can be parsed in place instead of being copied first.
+ * Values that need decoding (escapes, character references) are built in {@link #text} instead.
+ * Either way the current value is exposed as {@link #wert} between {@link #wertStart} and {@link #wertEnde}.
+ * <p>
+ * With a {@link Quarantine} the value conversions are lenient: a value that is not a number, house or timestamp is
+ * remembered as the {@link #grund} for rejecting the current record instead of failing the read, and the scanner
+ * reads on to the end of the record so it can hand it to {@link #quarantaeniert(long)} and continue with the next.
+ */
+abstract class CharBufferScanner {
+    private static final Haus[] HAEUSER = Haus.values();
+
+    private final Reader reader;
+    private final String format;
+    private final Path datei;
+    private final Quarantine quarantine;
+
+    char[] buf = new char[1 << 16];
+    int pos;
+    int limit;
+    long basis;
+    /** Start of the region that {@link #fuelle(int)} must keep in the buffer, or {@code -1}. */
+    int marke = -1;
+
+    final StringBuilder text = new StringBuilder(64);
+    char[] wert;
+    int wertStart;
+    int wertEnde;
+    /** Why the current record is rejected, or {@code null} while all its values are valid. */
+    String grund;
+
+    /**
+     * @param reader     the source; it is not closed by the scanner
+     * @param format     the format name used in error messages, e.g. {@code "XML"}
+     * @param datei      the file being read, reported to the quarantine
+     * @param quarantine receives the rejected records, or {@code null} to fail on the first invalid value
+     */
+    CharBufferScanner(Reader reader, String format, Path datei, Quarantine quarantine) {
+        this.reader = reader;
+        this.format = format;
+        this.datei = datei;
+        this.quarantine = quarantine;
+    }
+
+    final int lese() throws IOException {
+        if (pos == limit && !fuelle(1)) {
+            return -1;
+        }
+        return buf[pos++];
+    }
+
+    /**
+     * Consumes {@code s} if the next characters match it, otherwise leaves the position unchanged.
+     */
+    final boolean folgt(String s) throws IOException {
+        if (limit - pos < s.length()) {
+            fuelle(s.length());
+            if (limit - pos < s.length()) {
+                return false;
+            }
+        }
+        if (!gleich(s, buf, pos)) {
+            return false;
+        }
+        pos += s.length();
+        return true;
+    }
+
+    /**
+     * Discards everything before {@link #pos} (or {@link #marke}, if set) and reads until at least
+     * {@code mindestens} unread characters are available or the input ends.
+     *
+     * @return whether at least one unread character is available
+     */
+    final boolean fuelle(int mindestens) throws IOException {
+        int behalten = marke >= 0 ? marke : pos;
+        int rest = limit - behalten;
+        if (rest + mindestens > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, rest + mindestens));
+        }
+        System.arraycopy(buf, behalten, buf, 0, rest);
+        basis += behalten;
+        pos -= behalten;
+        limit = rest;
+        if (marke >= 0) {
+            marke = 0;
+        }
+
+        while (limit - pos < mindestens) {
+            int n = reader.read(buf, limit, buf.length - limit);
+            if (n < 0) {
+                break;
+            }
+            limit += n;
+        }
+        return pos < limit;
+    }
+
+    /**
+     * Makes the content of {@link #text} the current value.
+     */
+    final void wertAusText() {
+        if (wert == null || wert == buf || wert.length < text.length()) {
+            wert = new char[Math.max(64, text.length())];
+        }
+        text.getChars(0, text.length(), wert, 0);
+        wertStart = 0;
+        wertEnde = text.length();
+    }
+
+    final int wertAlsInt() throws IOException {
+        int s = wertStart;
+        int e = wertEnde;
+        while (s < e && Character.isWhitespace(wert[s])) {
+            s++;
+        }
+        while (e > s && Character.isWhitespace(wert[e - 1])) {
+            e--;
+        }
+        try {
+            return Integer.parseInt(CharBuffer.wrap(wert, s, e - s), 0, e - s, 10);
+        } catch (NumberFormatException ex) {
+            if (quarantine == null) {
+                throw fehler("not a number: \"" + new String(wert, s, e - s) + "\"");
+            }
+            verwerfe("Not a number: \"" + new String(wert, s, e - s) + "\"");
+            return 0;
+        }
+    }
+
+    final LocalDateTime wertAlsZeitpunkt() throws IOException {
+        int s = wertStart;
+        int e = wertEnde;
+        while (s < e && Character.isWhitespace(wert[s])) {
+            s++;
+        }
+        while (e > s && Character.isWhitespace(wert[e - 1])) {
+            e--;
+        }
+        try {
+            return Timestamps.zeitpunkt(Timestamps.parse(CharBuffer.wrap(wert, s, e - s), 0, e - s));
+        } catch (IllegalArgumentException ex) {
+            if (quarantine == null) {
+                throw fehler("not a timestamp: \"" + new String(wert, s, e - s) + "\"");
+            }
+            verwerfe(ex.getMessage());
+            return null;
+        }
+    }
+
+    final String wertAlsString() {
+        int s = wertStart;
+        int e = wertEnde;
+        while (s < e && Character.isWhitespace(wert[s])) {
+            s++;
+        }
+        while (e > s && Character.isWhitespace(wert[e - 1])) {
+            e--;
+        }
+        return NameInterner.gemeinsam().intern(wert, s, e);
+    }
+
+    final Haus wertAlsHaus() throws IOException {
+        int s = wertStart;
+        int e = wertEnde;
+        while (s < e && Character.isWhitespace(wert[s])) {
+            s++;
+        }
+        while (e > s && Character.isWhitespace(wert[e - 1])) {
+            e--;
+        }
+        for (Haus haus : HAEUSER) {
+            if (haus.name().length() == e - s && gleich(haus.name(), wert, s)) {
+                return haus;
+            }
+        }
+        if (quarantine == null) {
+            return Haus.valueOf(new String(wert, s, e - s));
+        }
+        verwerfe("No enum constant Haus." + new String(wert, s, e - s));
+        return null;
+    }
+
+    /**
+     * Hands the record starting at {@code offset} to the quarantine if one of its values was rejected.
+     *
+     * @return whether the record was rejected and must be skipped
+     * @throws IOException if the quarantine cannot be written or its error budget is exceeded
+     */
+    final boolean quarantaeniert(long offset) throws IOException {
+        if (grund == null) {
+            return false;
+        }
+        quarantine.melde(datei, offset, grund, null);
+        grund = null;
+        return true;
+    }
+
+    /**
+     * Decides whether a syntax error can be skipped: a record cut off by the end of the input, e.g. of an export
+     * that was interrupted, is handed to the quarantine. An error in the middle of the input cannot be skipped,
+     * since the scanner cannot tell where the next record starts.
+     *
+     * @param offset the offset at which the broken record starts
+     * @param e      the syntax error
+     * @return whether the error was quarantined and the input ends here
+     * @throws IOException if the quarantine cannot be written or its error budget is exceeded
+     */
+    final boolean abgeschnitten(long offset, IOException e) throws IOException {
+        marke = -1;
+        grund = null;
+        if (quarantine == null || pos < limit || fuelle(1)) {
+            return false;
+        }
+        quarantine.melde(datei, offset, "Truncated record: " + e.getMessage(), null);
+        return true;
+    }
+
+    /**
+     * Rejects the current record for an error that leaves the scanner at a known position, such as a mismatched
+     * end tag: a strict scanner fails, a lenient one remembers the {@link #grund} and reads on to the end of the
+     * record.
+     *
+     * @param grund the error, starting in lower case like the messages of {@link #fehler(String)}
+     * @throws IOException if there is no quarantine
+     */
+    final void lehneAb(String grund) throws IOException {
+        if (quarantine == null) {
+            throw fehler(grund);
+        }
+        verwerfe(Character.toUpperCase(grund.charAt(0)) + grund.substring(1));
+    }
+
+    private void verwerfe(String grund) {
+        // the first invalid value of a record is the reason it is rejected for
+        if (this.grund == null) {
+            this.grund = grund;
+        }
+    }
+
+    static boolean gleich(String s, char[] chars, int start) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chars[start + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    final IOException fehler(String grund) {
+        return new IOException("Invalid " + format + " file: " + grund + " at character offset " + (basis + pos));
+    }
+}
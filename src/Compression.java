@@ -0,0 +1,343 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Transparent compression of input and output files, so archived exports such as {@code punkte.csv.gz} can be read
+ * and written without unpacking them to disk first.
+ *
+ * Input is recognized by its magic bytes, whatever the file is called:
+ * <ul>
+ *     <li>gzip - starts with {@code 1f 8b}</li>
+ *     <li>zlib (deflate with a header) - starts with {@code 78} followed by {@code 01}, {@code 5e}, {@code 9c} or
+ *     {@code da}, the headers written for the four compression level classes</li>
+ * </ul>
+ * Output is compressed by the extension of the target: {@code .gz} writes gzip, {@code .zz} writes zlib, anything
+ * else is written as it is.
+ *
+ * A compressed file is decompressed on its own thread, which fills blocks of {@value #BLOCKGROESSE} bytes into a
+ * queue of at most {@value #BLOECKE} blocks. The reading thread only copies finished blocks out of the queue, so
+ * inflating the next blocks overlaps with parsing the current one, while the queue bounds the memory used when the
+ * parser falls behind.
+ *
+ * Example:
+ * <pre>
+ *     try (BufferedReader reader = Compression.leser(Path.of("punkte.xml.gz"))) {
+ *         XMLEntryIterator entries = new XMLEntryIterator(reader);
+ *     }
+ *     app.schreibeCSV("ergebnis.csv.gz", punkte);    // written as gzip
+ * </pre>
+ */
+public final class Compression {
+    private static final int BLOCKGROESSE = 64 * 1024;
+    private static final int BLOECKE = 16;
+
+    private Compression() {
+    }
+
+    /**
+     * @param path the file to check
+     * @return whether the file starts with the magic bytes of gzip or zlib
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean komprimiert(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return art(in.readNBytes(2)) != Art.KEINE;
+        }
+    }
+
+    /**
+     * Opens a file for reading, decompressing it on a separate thread if it is compressed.
+     *
+     * @param path the file to read
+     * @return the content of the file; closing the stream stops the decompression thread and closes the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream oeffne(Path path) throws IOException {
+        PushbackInputStream roh = new PushbackInputStream(Files.newInputStream(path), 2);
+        try {
+            Art art = art(roh);
+            return art == Art.KEINE ? roh : new Entpacker(art.entpacke(roh), path);
+        } catch (IOException | RuntimeException e) {
+            roh.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param path the file to read
+     * @return a UTF-8 reader over the content of the file, see {@link #oeffne(Path)}
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader leser(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(oeffne(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a file for reading on the calling thread, for callers that only read its first bytes.
+     *
+     * @param path the file to read
+     * @return the content of the file, decompressed if it is compressed
+     * @throws IOException if the file cannot be opened
+     */
+    static InputStream oeffneDirekt(Path path) throws IOException {
+        PushbackInputStream roh = new PushbackInputStream(Files.newInputStream(path), 2);
+        try {
+            return art(roh).entpacke(roh);
+        } catch (IOException | RuntimeException e) {
+            roh.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param dateiname a file name
+     * @return the file name without a {@code .gz} or {@code .zz} extension, e.g. {@code "punkte.csv"} for
+     *         {@code "punkte.csv.gz"}
+     */
+    public static String ohneEndung(String dateiname) {
+        for (Art art : Art.values()) {
+            if (art.endung != null && dateiname.endsWith(art.endung)) {
+                return dateiname.substring(0, dateiname.length() - art.endung.length());
+            }
+        }
+        return dateiname;
+    }
+
+    /**
+     * Wraps the channel of a file being written into a compressing channel if the target name asks for it.
+     * Closing the returned channel finishes the compressed stream and closes {@code kanal}.
+     *
+     * @param ziel  the final name of the file, whose extension decides the compression
+     * @param kanal the channel the file is written through
+     * @return {@code kanal} itself, or a channel compressing into it
+     * @throws IOException if the compressed stream cannot be started
+     */
+    static WritableByteChannel schreiber(Path ziel, WritableByteChannel kanal) throws IOException {
+        String name = ziel.getFileName().toString();
+        for (Art art : Art.values()) {
+            if (art.endung != null && name.endsWith(art.endung)) {
+                return Channels.newChannel(art.packe(Channels.newOutputStream(kanal)));
+            }
+        }
+        return kanal;
+    }
+
+    /**
+     * Peeks at the magic bytes of {@code in} without consuming them.
+     */
+    private static Art art(PushbackInputStream in) throws IOException {
+        byte[] magie = in.readNBytes(2);
+        in.unread(magie);
+        return art(magie);
+    }
+
+    private static Art art(byte[] magie) {
+        if (magie.length < 2) {
+            return Art.KEINE;
+        }
+        int b0 = magie[0] & 0xff;
+        int b1 = magie[1] & 0xff;
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return Art.GZIP;
+        }
+        if (b0 == 0x78 && (b1 == 0x01 || b1 == 0x5e || b1 == 0x9c || b1 == 0xda)) {
+            return Art.ZLIB;
+        }
+        return Art.KEINE;
+    }
+
+    private enum Art {
+        KEINE(null), GZIP(".gz"), ZLIB(".zz");
+
+        private final String endung;
+
+        Art(String endung) {
+            this.endung = endung;
+        }
+
+        InputStream entpacke(InputStream in) throws IOException {
+            switch (this) {
+                case GZIP: return new GZIPInputStream(in, BLOCKGROESSE);
+                case ZLIB: return new InflaterInputStream(in, new Inflater(), BLOCKGROESSE);
+                default: return in;
+            }
+        }
+
+        OutputStream packe(OutputStream out) throws IOException {
+            switch (this) {
+                case GZIP: return new GZIPOutputStream(out, BLOCKGROESSE);
+                case ZLIB: return new DeflaterOutputStream(out, new Deflater(), BLOCKGROESSE);
+                default: return out;
+            }
+        }
+    }
+
+    /**
+     * The reading end of the decompression pipeline. A daemon thread reads the decompressed content in blocks and
+     * puts them into {@link #voll}; consumed blocks go back through {@link #frei} to be filled again, so a file of
+     * any size is decompressed with at most {@value #BLOECKE} + 1 blocks. A failure of the decompression, such as a
+     * truncated or corrupt file, is thrown by the read that reaches it and again by every later read.
+     */
+    private static final class Entpacker extends InputStream {
+        private static final Block ENDE = new Block(0);
+
+        private final BlockingQueue<Block> voll = new ArrayBlockingQueue<>(BLOECKE);
+        private final BlockingQueue<Block> frei = new ArrayBlockingQueue<>(BLOECKE + 1);
+        private final InputStream quelle;
+        private final Thread thread;
+        private volatile boolean geschlossen;
+        private Block aktuell;
+        private int pos;
+        // the failure of the decompression, thrown again by every later read
+        private Exception fehler;
+
+        Entpacker(InputStream quelle, Path path) {
+            this.quelle = quelle;
+            this.thread = new Thread(this::entpacke, "decompress-" + path.getFileName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void entpacke() {
+            try {
+                while (true) {
+                    Block block = frei.poll();
+                    if (block == null) {
+                        block = new Block(BLOCKGROESSE);
+                    }
+                    // readNBytes only returns less than a full block at the end of the content
+                    block.laenge = quelle.readNBytes(block.daten, 0, block.daten.length);
+                    if (block.laenge > 0) {
+                        voll.put(block);
+                    }
+                    if (block.laenge < block.daten.length) {
+                        voll.put(ENDE);
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // closed by the reader
+            } catch (IOException | RuntimeException e) {
+                if (!geschlossen) {
+                    Block fehler = new Block(0);
+                    fehler.fehler = e;
+                    try {
+                        voll.put(fehler);
+                    } catch (InterruptedException unterbrochen) {
+                        // closed by the reader
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!naechsterBlock()) {
+                return -1;
+            }
+            return aktuell.daten[pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!naechsterBlock()) {
+                return -1;
+            }
+            int anzahl = Math.min(len, aktuell.laenge - pos);
+            System.arraycopy(aktuell.daten, pos, b, off, anzahl);
+            pos += anzahl;
+            return anzahl;
+        }
+
+        /**
+         * @return whether {@link #aktuell} has unread bytes, after taking the next block if needed
+         */
+        private boolean naechsterBlock() throws IOException {
+            if (aktuell != null && pos < aktuell.laenge) {
+                return true;
+            }
+            if (aktuell == ENDE) {
+                return false;
+            }
+            if (geschlossen) {
+                throw new IOException("Stream closed");
+            }
+            if (fehler != null) {
+                throw fehler();
+            }
+            if (aktuell != null) {
+                frei.offer(aktuell);
+            }
+            try {
+                aktuell = voll.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+            }
+            pos = 0;
+            if (aktuell.fehler != null) {
+                // a caller that catches the first failure must not see the rest of a corrupt file as its end
+                fehler = aktuell.fehler;
+                throw fehler();
+            }
+            return aktuell != ENDE;
+        }
+
+        /**
+         * @return the failure of the decompression as a new {@link IOException}; a {@link RuntimeException} is thrown
+         *         as it is
+         */
+        private IOException fehler() {
+            if (fehler instanceof RuntimeException laufzeit) {
+                throw laufzeit;
+            }
+            return new IOException(fehler.getMessage(), fehler);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!geschlossen) {
+                geschlossen = true;
+                thread.interrupt();
+                try {
+                    // the thread may be inside a read of the file, which must finish before the file is closed
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                quelle.close();
+            }
+        }
+    }
+
+    private static final class Block {
+        final byte[] daten;
+        int laenge;
+        Exception fehler;
+
+        Block(int groesse) {
+            daten = new byte[groesse];
+        }
+    }
+}
@@ -0,0 +1,607 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * A byte-level parser for delimiter separated files such as CSV and TSV.
+ * The file is memory-mapped through a {@link FileChannel} and scanned for delimiters directly on the raw bytes.
+ * {@code id} and {@code punkte} are parsed as ints from the bytes and the {@link Haus} is matched against the
+ * encoded enum names, and an optional {@code zeitpunkt} column is read in place by {@link Timestamps}. Names are
+ * looked up in the shared {@link NameInterner} straight from the bytes, so a row of already known names creates no
+ * objects at all.
+ *
+ * Example:
+ * <pre>
+ *     DelimitedParser.csv().parse(Path.of("punkte.csv"), (id, studentName, haus, lehrerName, punkte) -&gt; {
+ *         // consume one row
+ *     });
+ * </pre>
+ * <p>
+ * The first row is the header and determines which column holds which field, exactly like
+ * {@link HogwartsApp#leseCSV(String)}. Unknown columns are skipped. A pair of double quotes enclosing a value
+ * is removed, quotes inside a value are kept as they are.
+ * <p>
+ * By default a malformed row fails the whole parse; {@link #mitQuarantaene(Quarantine)} returns a parser that skips
+ * such rows and reports them instead.
+ * <p>
+ * A parser reuses an internal decoding buffer and must not be shared between threads;
+ * {@link #parseParallel(Path, int, Supplier)} gives every task its own copy.
+ */
+public final class DelimitedParser {
+    private static final int ID = 0;
+    private static final int STUDENT_NAME = 1;
+    private static final int HAUS = 2;
+    private static final int LEHRER_NAME = 3;
+    private static final int PUNKTE = 4;
+    private static final int ZEITPUNKT = 5;
+    private static final int IGNORIERT = -1;
+    private static final long KEIN_ZEITPUNKT = EntrySink.KEIN_ZEITPUNKT;
+
+    private static final byte[][] HAUS_NAMEN = new byte[Haus.values().length][];
+
+    static {
+        for (Haus haus : Haus.values()) {
+            HAUS_NAMEN[haus.ordinal()] = haus.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final int[] FESTE_SPALTEN = {ID, STUDENT_NAME, HAUS, LEHRER_NAME, PUNKTE, ZEITPUNKT};
+
+    private final byte delimiter;
+    private final boolean kopfzeile;
+    private final long segmentGroesse;
+    private final Quarantine quarantine;
+    private byte[] puffer = new byte[64];
+    private final NameInterner namen = NameInterner.gemeinsam();
+    private final Ascii ascii = new Ascii();
+
+    private DelimitedParser(byte delimiter, boolean kopfzeile, long segmentGroesse, Quarantine quarantine) {
+        this.delimiter = delimiter;
+        this.kopfzeile = kopfzeile;
+        this.segmentGroesse = segmentGroesse;
+        this.quarantine = quarantine;
+    }
+
+    /**
+     * @return a parser for comma separated files with a header row
+     */
+    public static DelimitedParser csv() {
+        return new DelimitedParser((byte) ',', true, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * @return a parser for tab separated files with a header row
+     */
+    public static DelimitedParser tsv() {
+        return new DelimitedParser((byte) '\t', true, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * @return a parser for the {@code &} separated format of {@link HogwartsApp#leseDatei(String)}, which has no
+     * header row and always lists {@code id}, {@code studentName}, {@code haus}, {@code lehrerName} and {@code punkte},
+     * optionally followed by a {@code zeitpunkt}
+     */
+    public static DelimitedParser ampersand() {
+        return new DelimitedParser((byte) '&', false, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Returns a lenient copy of this parser. A row with too few columns, a value that is not a number or an unknown
+     * house is reported to {@code quarantine} together with its byte offset and skipped, and parsing continues with
+     * the next row. The check costs nothing for well-formed rows: only a row that fails to parse reaches the
+     * quarantine.
+     *
+     * @param quarantine receives the malformed rows, or {@code null} for a strict parser
+     * @return a parser with the same format that skips malformed rows
+     */
+    public DelimitedParser mitQuarantaene(Quarantine quarantine) {
+        return new DelimitedParser(delimiter, kopfzeile, segmentGroesse, quarantine);
+    }
+
+    /**
+     * Parses the whole file and hands every data row to {@code sink}, in file order.
+     * Files larger than a single mapping (2 GB) are mapped in consecutive segments that end on a line break.
+     * A gzip or zlib compressed file cannot be mapped; it is decompressed by {@link Compression#oeffne(Path)} and
+     * parsed block by block from the decompressed stream instead, with byte offsets counted in the decompressed
+     * content.
+     *
+     * @param path the file to parse
+     * @param sink receives one call per data row
+     * @throws IOException if the file cannot be read, has no header row or a row has fewer columns than the header
+     */
+    public void parse(Path path, EntrySink sink) throws IOException {
+        if (Compression.komprimiert(path)) {
+            try (InputStream in = Compression.oeffne(path)) {
+                parseStrom(in, path, sink);
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long groesse = channel.size();
+            int[] spalten = spalten(channel, path);
+            long datenStart = kopfzeile ? kopfzeilenEnde(channel) : 0;
+
+            parseAbschnitt(channel, path, datenStart, groesse, spalten, sink);
+        }
+    }
+
+    /**
+     * Parses only the rows that start at or after byte {@code offset}, for files that grow by appending.
+     * Only rows terminated by a line break are parsed; an unterminated last row is left for the next call, since it
+     * may still be in the middle of being written.
+     *
+     * Example:
+     * <pre>
+     *     long offset = 0;
+     *     offset = parser.parseAb(path, offset, sink);   // all complete rows so far
+     *     // ... more rows are appended to the file ...
+     *     offset = parser.parseAb(path, offset, sink);   // only the appended rows
+     * </pre>
+     *
+     * @param path   the file to parse
+     * @param offset the value returned by the previous call, or {@code 0} to start at the beginning
+     * @param sink   receives one call per parsed row
+     * @return the offset behind the last parsed row, to be passed to the next call
+     * @throws IOException if the file cannot be read, is compressed or a row has fewer columns than the header
+     */
+    public long parseAb(Path path, long offset, EntrySink sink) throws IOException {
+        return parseAb(path, offset, false, sink);
+    }
+
+    /**
+     * Like {@link #parseAb(Path, long, EntrySink)}, but also parses a last row that has no line break yet.
+     * Callers use it to include a row that may still be incomplete, without advancing their stored offset past it.
+     * Such a row is always parsed strictly, also by a lenient parser, so a row caught in the middle of being written
+     * fails instead of being quarantined again on every call.
+     *
+     * @param path   the file to parse
+     * @param offset the value returned by the previous call of {@link #parseAb(Path, long, EntrySink)}
+     * @param sink   receives one call per parsed row
+     * @throws IOException if the file cannot be read or a row has fewer columns than the header
+     */
+    public void parseRest(Path path, long offset, EntrySink sink) throws IOException {
+        (quarantine == null ? this : mitQuarantaene(null)).parseAb(path, offset, true, sink);
+    }
+
+    private long parseAb(Path path, long offset, boolean bisDateiende, EntrySink sink) throws IOException {
+        if (Compression.komprimiert(path)) {
+            throw new IOException("A compressed file cannot be parsed incrementally: " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long ende = bisDateiende ? channel.size() : vorherigerZeilenanfang(channel, channel.size());
+            if (kopfzeile && vorherigerZeilenanfang(channel, ende) == 0) {
+                // the header row itself is not complete yet
+                return offset;
+            }
+
+            int[] spalten = spalten(channel, path);
+            long start = Math.max(offset, kopfzeile ? kopfzeilenEnde(channel) : 0);
+            if (start < ende) {
+                parseAbschnitt(channel, path, start, ende, spalten, sink);
+            }
+            return Math.max(start, ende);
+        }
+    }
+
+    /**
+     * Parses the file on a {@link ForkJoinPool} with the given parallelism.
+     * The data rows are split into byte ranges whose boundaries are moved forward to the next line break, and
+     * each range is parsed by its own task into its own sink from {@code sinks}.
+     * <p>
+     * The sinks are returned in file order, so concatenating their contents reproduces the sequential result.
+     * A caller that only aggregates can combine them in any order and never pays for ordering.
+     * A compressed file is parsed sequentially into a single sink, see {@link #parse(Path, EntrySink)}.
+     *
+     * Example:
+     * <pre>
+     *     class Summe implements EntrySink {
+     *         long punkte;
+     *         public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+     *             this.punkte += punkte;
+     *         }
+     *     }
+     *     long gesamt = DelimitedParser.csv().parseParallel(path, 8, Summe::new)
+     *             .stream().mapToLong(summe -&gt; summe.punkte).sum();
+     * </pre>
+     *
+     * @param path          the file to parse
+     * @param parallelitaet the number of worker threads
+     * @param sinks         creates one sink per byte range; it is called once per range from the calling thread
+     * @param <S>           the sink type
+     * @return the sinks, one per byte range, in file order
+     * @throws IOException if the file cannot be read or one of the ranges fails to parse
+     */
+    public <S extends EntrySink> List<S> parseParallel(Path path, int parallelitaet, Supplier<S> sinks) throws IOException {
+        if (parallelitaet < 1) {
+            throw new IllegalArgumentException("parallelitaet must be at least 1 but was " + parallelitaet);
+        }
+        if (Compression.komprimiert(path)) {
+            // a compressed stream can only be decompressed from its start, so there are no ranges to split
+            S sink = sinks.get();
+            parse(path, sink);
+            return List.of(sink);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long groesse = channel.size();
+            int[] spalten = spalten(channel, path);
+            long datenStart = kopfzeile ? kopfzeilenEnde(channel) : 0;
+
+            long anzahl = Math.max(parallelitaet, (groesse - datenStart) / segmentGroesse + 1);
+            List<Long> grenzen = new ArrayList<>();
+            grenzen.add(datenStart);
+            for (long i = 1; i < anzahl; i++) {
+                long grenze = naechsterZeilenanfang(channel, datenStart + (groesse - datenStart) * i / anzahl);
+                if (grenze > grenzen.get(grenzen.size() - 1) && grenze < groesse) {
+                    grenzen.add(grenze);
+                }
+            }
+            grenzen.add(groesse);
+
+            List<S> ergebnis = new ArrayList<>();
+            List<Callable<S>> aufgaben = new ArrayList<>();
+            for (int i = 0; i + 1 < grenzen.size(); i++) {
+                long von = grenzen.get(i);
+                long bis = grenzen.get(i + 1);
+                S sink = sinks.get();
+                ergebnis.add(sink);
+                aufgaben.add(() -> {
+                    new DelimitedParser(delimiter, kopfzeile, segmentGroesse, quarantine).parseAbschnitt(channel, path, von, bis, spalten, sink);
+                    return sink;
+                });
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelitaet);
+            try {
+                for (Future<S> future : pool.invokeAll(aufgaben)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while parsing " + path);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+            return ergebnis;
+        }
+    }
+
+    private int[] spalten(FileChannel channel, Path path) throws IOException {
+        if (!kopfzeile) {
+            return FESTE_SPALTEN;
+        }
+        if (channel.size() == 0) {
+            throw new IOException("Missing header row in " + path);
+        }
+        ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentGroesse));
+        return leseKopfzeile(buf, naechsterZeilenumbruch(buf, 0, buf.limit()));
+    }
+
+    private long kopfzeilenEnde(FileChannel channel) throws IOException {
+        return naechsterZeilenanfang(channel, 0);
+    }
+
+    /**
+     * @return the offset just behind the first line break at or after {@code position}, or the file size
+     */
+    private static long naechsterZeilenanfang(FileChannel channel, long position) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        while (true) {
+            buf.clear();
+            int gelesen = channel.read(buf, position);
+            if (gelesen <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < gelesen; i++) {
+                if (buf.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += gelesen;
+        }
+    }
+
+    /**
+     * @return the offset just behind the last line break before {@code position}, or {@code 0} if there is none
+     */
+    private static long vorherigerZeilenanfang(FileChannel channel, long position) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        while (position > 0) {
+            int laenge = (int) Math.min(buf.capacity(), position);
+            buf.clear().limit(laenge);
+            long von = position - laenge;
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, von + buf.position()) < 0) {
+                    throw new IOException("File shrank while reading");
+                }
+            }
+            for (int i = laenge - 1; i >= 0; i--) {
+                if (buf.get(i) == '\n') {
+                    return von + i + 1;
+                }
+            }
+            position = von;
+        }
+        return 0;
+    }
+
+    private void parseAbschnitt(FileChannel channel, Path path, long von, long bis, int[] spalten, EntrySink sink) throws IOException {
+        long position = von;
+        while (position < bis) {
+            long laenge = Math.min(segmentGroesse, bis - position);
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, laenge);
+            int ende = (int) laenge;
+            if (position + laenge < bis) {
+                ende = letzterZeilenumbruch(buf, ende) + 1;
+                if (ende == 0) {
+                    throw new IOException("Line longer than " + segmentGroesse + " bytes at byte offset " + position);
+                }
+            }
+            parseBereich(buf, 0, ende, spalten, path, position, sink);
+            position += ende;
+        }
+    }
+
+    /**
+     * Parses decompressed content in blocks: every block is cut behind its last line break, the complete rows are
+     * parsed in place and the unfinished last row is moved to the front of the buffer for the next block.
+     */
+    private void parseStrom(InputStream in, Path path, EntrySink sink) throws IOException {
+        byte[] daten = new byte[1 << 20];
+        ByteBuffer buf = ByteBuffer.wrap(daten);
+        int[] spalten = kopfzeile ? null : FESTE_SPALTEN;
+        int gefuellt = 0;
+        long basis = 0;
+
+        while (true) {
+            int gelesen = in.readNBytes(daten, gefuellt, daten.length - gefuellt);
+            gefuellt += gelesen;
+            boolean ende = gefuellt < daten.length;
+            int bereichEnde = ende ? gefuellt : letzterZeilenumbruch(buf, gefuellt) + 1;
+            if (bereichEnde == 0) {
+                // not a single complete row in the buffer, make room for a longer one
+                daten = Arrays.copyOf(daten, daten.length * 2);
+                buf = ByteBuffer.wrap(daten);
+                continue;
+            }
+
+            int start = 0;
+            if (spalten == null) {
+                if (gefuellt == 0) {
+                    throw new IOException("Missing header row in " + path);
+                }
+                int kopfzeilenEnde = naechsterZeilenumbruch(buf, 0, bereichEnde);
+                spalten = leseKopfzeile(buf, kopfzeilenEnde);
+                start = Math.min(kopfzeilenEnde + 1, bereichEnde);
+            }
+            parseBereich(buf, start, bereichEnde, spalten, path, basis, sink);
+            if (ende) {
+                return;
+            }
+
+            System.arraycopy(daten, bereichEnde, daten, 0, gefuellt - bereichEnde);
+            gefuellt -= bereichEnde;
+            basis += bereichEnde;
+        }
+    }
+
+    private int[] leseKopfzeile(ByteBuffer buf, int ende) {
+        String header = dekodiere(buf, 0, ohneWagenruecklauf(buf, 0, ende));
+        String[] felder = header.split(String.valueOf((char) delimiter));
+        int[] spalten = new int[felder.length];
+
+        for (int i = 0; i < felder.length; i++) {
+            switch (felder[i]) {
+                case "id": spalten[i] = ID; break;
+                case "studentName": spalten[i] = STUDENT_NAME; break;
+                case "haus": spalten[i] = HAUS; break;
+                case "lehrerName": spalten[i] = LEHRER_NAME; break;
+                case "punkte": spalten[i] = PUNKTE; break;
+                case "zeitpunkt": spalten[i] = ZEITPUNKT; break;
+                default: spalten[i] = IGNORIERT;
+            }
+        }
+        return spalten;
+    }
+
+    private void parseBereich(ByteBuffer buf, int pos, int ende, int[] spalten, Path path, long basis, EntrySink sink) throws IOException {
+        while (pos < ende) {
+            int zeilenEnde = naechsterZeilenumbruch(buf, pos, ende);
+            int inhaltEnde = ohneWagenruecklauf(buf, pos, zeilenEnde);
+            if (inhaltEnde == pos) {
+                pos = zeilenEnde + 1;
+                continue;
+            }
+
+            int id = 0;
+            String studentName = null;
+            Haus haus = null;
+            String lehrerName = null;
+            int punkte = 0;
+            long zeitpunkt = KEIN_ZEITPUNKT;
+
+            int feldStart = pos;
+            try {
+                for (int spalte = 0; spalte < spalten.length; spalte++) {
+                    if (feldStart > inhaltEnde) {
+                        if (spalten == FESTE_SPALTEN && spalten[spalte] == ZEITPUNKT) {
+                            // the timestamp is optional in the format without header
+                            break;
+                        }
+                        throw new IOException("Expected " + spalten.length + " columns but found " + spalte
+                                + " at byte offset " + (basis + pos));
+                    }
+                    int feldEnde = feldStart;
+                    while (feldEnde < inhaltEnde && buf.get(feldEnde) != delimiter) {
+                        feldEnde++;
+                    }
+
+                    int s = feldStart;
+                    int e = feldEnde;
+                    if (e - s >= 2 && buf.get(s) == '"' && buf.get(e - 1) == '"') {
+                        s++;
+                        e--;
+                    }
+
+                    switch (spalten[spalte]) {
+                        case ID: id = parseInt(buf, s, e); break;
+                        case STUDENT_NAME: studentName = namen.intern(buf, s, e); break;
+                        case HAUS: haus = parseHaus(buf, s, e); break;
+                        case LEHRER_NAME: lehrerName = namen.intern(buf, s, e); break;
+                        case PUNKTE: punkte = parseInt(buf, s, e); break;
+                        case ZEITPUNKT: zeitpunkt = Timestamps.parse(ascii.von(buf), s, e); break;
+                        default: break;
+                    }
+                    feldStart = feldEnde + 1;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // only reached for a malformed row, the exception table costs nothing while rows parse cleanly
+                if (quarantine == null) {
+                    throw e;
+                }
+                quarantine.melde(path, basis + pos, e.getMessage(), dekodiere(buf, pos, inhaltEnde));
+                pos = zeilenEnde + 1;
+                continue;
+            }
+
+            sink.accept(id, studentName, haus, lehrerName, punkte, zeitpunkt);
+            pos = zeilenEnde + 1;
+        }
+    }
+
+    private String dekodiere(ByteBuffer buf, int start, int ende) {
+        int laenge = ende - start;
+        if (laenge > puffer.length) {
+            puffer = new byte[Math.max(laenge, puffer.length * 2)];
+        }
+        buf.get(start, puffer, 0, laenge);
+        return new String(puffer, 0, laenge, StandardCharsets.UTF_8);
+    }
+
+    private static int parseInt(ByteBuffer buf, int start, int ende) {
+        int pos = start;
+        boolean negativ = false;
+        if (pos < ende && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+            negativ = buf.get(pos) == '-';
+            pos++;
+        }
+        if (pos == ende) {
+            throw new NumberFormatException("Not a number: \"" + ascii(buf, start, ende) + "\"");
+        }
+
+        // accumulate negatively so Integer.MIN_VALUE is representable
+        int wert = 0;
+        for (; pos < ende; pos++) {
+            int ziffer = buf.get(pos) - '0';
+            if (ziffer < 0 || ziffer > 9 || wert < (Integer.MIN_VALUE + ziffer) / 10) {
+                throw new NumberFormatException("Not a number: \"" + ascii(buf, start, ende) + "\"");
+            }
+            wert = wert * 10 - ziffer;
+        }
+        if (!negativ) {
+            if (wert == Integer.MIN_VALUE) {
+                throw new NumberFormatException("Not a number: \"" + ascii(buf, start, ende) + "\"");
+            }
+            wert = -wert;
+        }
+        return wert;
+    }
+
+    private static Haus parseHaus(ByteBuffer buf, int start, int ende) {
+        for (Haus haus : Haus.values()) {
+            byte[] name = HAUS_NAMEN[haus.ordinal()];
+            if (name.length == ende - start && gleich(buf, start, name)) {
+                return haus;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant Haus." + ascii(buf, start, ende));
+    }
+
+    private static boolean gleich(ByteBuffer buf, int start, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (buf.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String ascii(ByteBuffer buf, int start, int ende) {
+        byte[] bytes = new byte[ende - start];
+        buf.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int naechsterZeilenumbruch(ByteBuffer buf, int pos, int ende) {
+        while (pos < ende && buf.get(pos) != '\n') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int letzterZeilenumbruch(ByteBuffer buf, int ende) {
+        int pos = ende - 1;
+        while (pos >= 0 && buf.get(pos) != '\n') {
+            pos--;
+        }
+        return pos;
+    }
+
+    private static int ohneWagenruecklauf(ByteBuffer buf, int start, int ende) {
+        return ende > start && buf.get(ende - 1) == '\r' ? ende - 1 : ende;
+    }
+
+    /**
+     * A reusable view of the bytes of the current buffer as characters, so {@link Timestamps} can read a
+     * timestamp in place. Non-ASCII bytes never form a valid timestamp and are seen as invalid characters.
+     */
+    private static final class Ascii implements CharSequence {
+        private ByteBuffer buf;
+
+        Ascii von(ByteBuffer buf) {
+            this.buf = buf;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return buf.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buf.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return ascii(buf, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return ascii(buf, 0, buf.limit());
+        }
+    }
+}
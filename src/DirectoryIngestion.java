@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reads every file of a directory in one run and merges the house totals. Each file is read on its own virtual
+ * thread with the reader detected by {@link EntryReaders#fuer(Path)}, so files of different formats can be mixed.
+ * A {@link Semaphore} bounds how many files are open at the same time: enough to overlap the waiting for I/O,
+ * but never more than the given limit of file handles.
+ *
+ * Example:
+ * <pre>
+ *     HausAggregator punkte = DirectoryIngestion.aggregiere(Path.of("exporte"), "*.{csv,json,xml}", 16);
+ *     app.schreibeDatei("ergebnis.txt", punkte);
+ * </pre>
+ */
+public final class DirectoryIngestion {
+    private DirectoryIngestion() {
+    }
+
+    /**
+     * Reads the files of a directory matching a glob pattern, see {@link #aggregiere(Path, DirectoryStream.Filter, int)}.
+     *
+     * @param verzeichnis  the directory to read
+     * @param glob         the pattern of the file names to read, e.g. {@code "*.csv"}
+     * @param gleichzeitig the maximum number of files read at the same time
+     * @return the merged totals of all files
+     * @throws IOException if the directory or one of the files cannot be read
+     */
+    public static HausAggregator aggregiere(Path verzeichnis, String glob, int gleichzeitig) throws IOException {
+        var matcher = verzeichnis.getFileSystem().getPathMatcher("glob:" + glob);
+        return aggregiere(verzeichnis, datei -> matcher.matches(datei.getFileName()), gleichzeitig);
+    }
+
+    /**
+     * Reads the regular files of a directory accepted by a filter and merges their house totals.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>List the accepted regular files of the directory, sorted by name; subdirectories are not entered.</li>
+     *     <li>Start one virtual thread per file. Each thread waits for a permit of the semaphore, detects the format,
+     *     reads the file with a fresh parser into its own {@link HausAggregator} and releases the permit.</li>
+     *     <li>Merge the per-file totals. If a file fails, the remaining threads are interrupted and the error is
+     *     reported with the name of the file.</li>
+     * </ol>
+     *
+     * @param verzeichnis  the directory to read
+     * @param filter       decides which files to read
+     * @param gleichzeitig the maximum number of files read at the same time
+     * @return the merged totals of all files
+     * @throws IOException if the directory or one of the files cannot be read
+     */
+    public static HausAggregator aggregiere(Path verzeichnis, DirectoryStream.Filter<? super Path> filter, int gleichzeitig) throws IOException {
+        return aggregiere(verzeichnis, filter, gleichzeitig, null);
+    }
+
+    /**
+     * Lenient variant of {@link #aggregiere(Path, DirectoryStream.Filter, int)}: malformed rows of every file are
+     * reported to the one shared {@code quarantine} and skipped, and its error budget applies to all files together.
+     *
+     * @param verzeichnis  the directory to read
+     * @param filter       decides which files to read
+     * @param gleichzeitig the maximum number of files read at the same time
+     * @param quarantine   receives the malformed rows, or {@code null} to fail on the first one
+     * @return the merged totals of the well-formed rows of all files
+     * @throws IOException if the directory or one of the files cannot be read, or the error budget is exceeded
+     */
+    public static HausAggregator aggregiere(Path verzeichnis, DirectoryStream.Filter<? super Path> filter, int gleichzeitig,
+                                            Quarantine quarantine) throws IOException {
+        if (gleichzeitig < 1) {
+            throw new IllegalArgumentException("At least one file must be read at a time: " + gleichzeitig);
+        }
+        List<Path> dateien = new ArrayList<>();
+        try (DirectoryStream<Path> eintraege = Files.newDirectoryStream(verzeichnis,
+                datei -> Files.isRegularFile(datei) && filter.accept(datei))) {
+            eintraege.forEach(dateien::add);
+        }
+        dateien.sort(null);
+
+        Semaphore offeneDateien = new Semaphore(gleichzeitig);
+        HausAggregator gesamt = new HausAggregator();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HausAggregator>> teile = new ArrayList<>(dateien.size());
+            for (Path datei : dateien) {
+                teile.add(executor.submit(() -> {
+                    offeneDateien.acquire();
+                    try {
+                        HausAggregator punkte = new HausAggregator();
+                        // the registered readers are shared, but each read creates its own parser and buffers
+                        EntryReaders.fuer(datei).lese(datei, punkte, quarantine);
+                        return punkte;
+                    } finally {
+                        offeneDateien.release();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < teile.size(); i++) {
+                try {
+                    gesamt.merge(teile.get(i).get());
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    throw new IOException("Failed to read " + dateien.get(i) + ": " + e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading " + verzeichnis);
+                }
+            }
+        }
+        return gesamt;
+    }
+}
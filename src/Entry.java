@@ -1,9 +1,12 @@
+import java.time.LocalDateTime;
+
 public class Entry {
     private int id;
     private String studentName;
     private Haus haus;
     private String lehrerName;
     private int punkte;
+    private LocalDateTime zeitpunkt;
 
     public Entry(int id, String studentName,Haus haus, String lehrerName, int punkte) {
         this.id = id;
@@ -13,6 +16,18 @@ public class Entry {
         this.punkte = punkte;
     }
 
+    /**
+     * @param zeitpunkt when the points were awarded, or {@code null} if the export does not say
+     */
+    public Entry(int id, String studentName, Haus haus, String lehrerName, int punkte, LocalDateTime zeitpunkt) {
+        this(id, studentName, haus, lehrerName, punkte);
+        this.zeitpunkt = zeitpunkt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
     public String getStudentName() {
         return studentName;
     }
@@ -21,10 +36,21 @@ public class Entry {
         return haus;
     }
 
+    public String getLehrerName() {
+        return lehrerName;
+    }
+
     public int getPunkte() {
         return punkte;
     }
 
+    /**
+     * @return when the points were awarded, or {@code null} if the export has no {@code zeitpunkt}
+     */
+    public LocalDateTime getZeitpunkt() {
+        return zeitpunkt;
+    }
+
     public void setId(int id) {
         this.id = id;
     }
@@ -44,4 +70,8 @@ public class Entry {
     public void setLehrerName(String lehrerName) {
         this.lehrerName = lehrerName;
     }
+
+    public void setZeitpunkt(LocalDateTime zeitpunkt) {
+        this.zeitpunkt = zeitpunkt;
+    }
 }
@@ -0,0 +1,80 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reader for one input format. The built-in readers for the five formats of {@link HogwartsApp} are provided by
+ * {@link EntryReaders}; further readers can be added without changing this code by implementing this interface
+ * in a public class with a public no-argument constructor and listing that class in a
+ * {@code META-INF/services/EntryReader} file on the class path.
+ *
+ * To pick a reader for a file, {@link EntryReaders#fuer(Path)} asks every reader how well it recognizes the
+ * file name and the first characters of the file, and uses the reader with the highest score.
+ *
+ * There is one instance of each reader for the whole JVM, so {@link #lese(Path, EntrySink)} may be called from
+ * several threads at once and must keep its state per call.
+ *
+ * Example:
+ * <pre>
+ *     EntryReader reader = EntryReaders.fuer(Path.of("export-2024.dat"));
+ *     reader.lese(Path.of("export-2024.dat"), aggregator);
+ * </pre>
+ */
+public interface EntryReader {
+    /** Score for a file name with the extension of the format. */
+    int ENDUNG = 1;
+
+    /** Score for content starting the way the format does. */
+    int INHALT = 2;
+
+    /**
+     * @return the short name of the format, e.g. {@code "csv"}
+     */
+    String format();
+
+    /**
+     * Rates how likely a file is in the format of this reader.
+     *
+     * @param dateiname the name of the file, without directories
+     * @param anfang    the first characters of the file, without a byte order mark and leading whitespace
+     * @return {@code 0} if the file is not recognized, otherwise the sum of the matching {@link #ENDUNG}
+     *         and {@link #INHALT} scores
+     */
+    int erkenne(String dateiname, String anfang);
+
+    /**
+     * Reads all rows of a file into a sink.
+     *
+     * @param path the file to read
+     * @param sink receives every row
+     * @throws IOException if the file cannot be read or is not in the format of this reader
+     */
+    void lese(Path path, EntrySink sink) throws IOException;
+
+    /**
+     * Reads all rows of a file into a sink, skipping malformed rows. A reader that supports lenient reading reports
+     * every row it cannot parse to {@code quarantine} and continues with the next one. The default implementation
+     * reads strictly, so readers that cannot skip a row still fail on the first malformed one.
+     *
+     * @param path       the file to read
+     * @param sink       receives every well-formed row
+     * @param quarantine receives the malformed rows, or {@code null} to read strictly
+     * @throws IOException if the file cannot be read, is not in the format of this reader or has more malformed
+     *                     rows than the error budget of {@code quarantine} allows
+     */
+    default void lese(Path path, EntrySink sink, Quarantine quarantine) throws IOException {
+        lese(path, sink);
+    }
+
+    /**
+     * @param path the file to read
+     * @return the entries of the file, in file order
+     * @throws IOException if the file cannot be read or is not in the format of this reader
+     */
+    default List<Entry> leseAlle(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        lese(path, EntrySink.in(entries));
+        return entries;
+    }
+}
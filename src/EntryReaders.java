@@ -0,0 +1,238 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the available {@link EntryReader}s and format detection for input files.
+ *
+ * The registry holds the readers found by {@link ServiceLoader} followed by the built-in readers for the formats
+ * of {@link HogwartsApp}. Detection reads the first bytes of a file and scores them together with the file name:
+ * <ul>
+ *     <li>{@code json} - content starting with {@code [} or <code>{</code>, or the extension {@code .json}, {@code .jsonl} or {@code .ndjson}</li>
+ *     <li>{@code xml} - content starting with {@code <}, e.g. {@code <?xml} or {@code <entries>}, or the extension {@code .xml}</li>
+ *     <li>{@code csv} - a first line containing a comma, or the extension {@code .csv}</li>
+ *     <li>{@code tsv} - a first line containing a tab, or the extension {@code .tsv}</li>
+ *     <li>{@code txt} - a first line containing {@code &}, or the extension {@code .txt}</li>
+ * </ul>
+ * Content outweighs the extension, so a CSV export saved as {@code .txt} is still read as CSV. A compressed file is
+ * detected by the content and name it has when decompressed, e.g. {@code punkte.csv.gz} as CSV, see {@link Compression}. On equal scores the
+ * earlier reader wins, which lets a service-loaded reader replace a built-in one.
+ *
+ * Example:
+ * <pre>
+ *     for (Path datei : List.of(Path.of("punkte.csv"), Path.of("punkte.xml"))) {
+ *         EntryReaders.fuer(datei).lese(datei, aggregator);
+ *     }
+ * </pre>
+ */
+public final class EntryReaders {
+    /** How many bytes are read from the start of a file for detection. */
+    private static final int ANFANG = 512;
+
+    private static final List<EntryReader> READER = lade();
+
+    private EntryReaders() {
+    }
+
+    /**
+     * @return all registered readers, service-loaded readers first
+     */
+    public static List<EntryReader> alle() {
+        return READER;
+    }
+
+    /**
+     * Returns the registered reader for a format name.
+     *
+     * @param format the format name, e.g. {@code "xml"}
+     * @return the first reader with that {@link EntryReader#format()}
+     * @throws IllegalArgumentException if no reader supports the format
+     */
+    public static EntryReader fuer(String format) {
+        for (EntryReader reader : READER) {
+            if (reader.format().equalsIgnoreCase(format)) {
+                return reader;
+            }
+        }
+        throw new IllegalArgumentException("No reader for format " + format);
+    }
+
+    /**
+     * Detects the format of a file and returns the matching reader.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Read the first {@value #ANFANG} bytes, decompressed if the file is compressed, and decode them as
+     *     UTF-8.</li>
+     *     <li>Drop a byte order mark and leading whitespace.</li>
+     *     <li>Ask every reader to score the file name and this start, and return the reader with the highest score.</li>
+     * </ol>
+     *
+     * @param path the file to read
+     * @return the reader for the file
+     * @throws IOException if the file cannot be read or no reader recognizes it
+     */
+    public static EntryReader fuer(Path path) throws IOException {
+        String dateiname = Compression.ohneEndung(path.getFileName().toString().toLowerCase(Locale.ROOT));
+        String anfang = anfang(path);
+
+        EntryReader bester = null;
+        int besteWertung = 0;
+        for (EntryReader reader : READER) {
+            int wertung = reader.erkenne(dateiname, anfang);
+            if (wertung > besteWertung) {
+                bester = reader;
+                besteWertung = wertung;
+            }
+        }
+        if (bester == null) {
+            throw new IOException("Unknown format of file " + path);
+        }
+        return bester;
+    }
+
+    private static String anfang(Path path) throws IOException {
+        byte[] bytes;
+        try (InputStream in = Compression.oeffneDirekt(path)) {
+            bytes = in.readNBytes(ANFANG);
+        }
+        String anfang = new String(bytes, StandardCharsets.UTF_8);
+        if (anfang.startsWith("\uFEFF")) {
+            anfang = anfang.substring(1);
+        }
+        return anfang.stripLeading();
+    }
+
+    private static List<EntryReader> lade() {
+        List<EntryReader> reader = new ArrayList<>();
+        for (EntryReader plugin : ServiceLoader.load(EntryReader.class)) {
+            reader.add(plugin);
+        }
+        reader.add(new Trennzeichen("csv", ',', DelimitedParser::csv, ".csv"));
+        reader.add(new Trennzeichen("tsv", '\t', DelimitedParser::tsv, ".tsv"));
+        reader.add(new Trennzeichen("txt", '&', DelimitedParser::ampersand, ".txt"));
+        reader.add(new Json());
+        reader.add(new Xml());
+        return Collections.unmodifiableList(reader);
+    }
+
+    private static int endung(String dateiname, String... endungen) {
+        for (String endung : endungen) {
+            if (dateiname.endsWith(endung)) {
+                return EntryReader.ENDUNG;
+            }
+        }
+        return 0;
+    }
+
+    private static void uebertrage(Iterator<Entry> entries, EntrySink sink) throws IOException {
+        try {
+            entries.forEachRemaining(entry -> sink.accept(entry.getId(), entry.getStudentName(), entry.getHaus(),
+                    entry.getLehrerName(), entry.getPunkte(), Timestamps.sekunden(entry.getZeitpunkt())));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads the CSV, TSV and {@code &} formats with a {@link DelimitedParser}. The content is recognized by the
+     * delimiter appearing in the first line. A parser keeps scratch buffers and must not be shared between threads,
+     * so every read creates its own; the registry itself is shared by the whole JVM.
+     */
+    private static final class Trennzeichen implements EntryReader {
+        private final String format;
+        private final char trenner;
+        private final Supplier<DelimitedParser> parser;
+        private final String endung;
+
+        Trennzeichen(String format, char trenner, Supplier<DelimitedParser> parser, String endung) {
+            this.format = format;
+            this.trenner = trenner;
+            this.parser = parser;
+            this.endung = endung;
+        }
+
+        @Override
+        public String format() {
+            return format;
+        }
+
+        @Override
+        public int erkenne(String dateiname, String anfang) {
+            int zeilenende = anfang.indexOf('\n');
+            String ersteZeile = zeilenende < 0 ? anfang : anfang.substring(0, zeilenende);
+            boolean inhalt = !ersteZeile.isEmpty() && ersteZeile.charAt(0) != '[' && ersteZeile.charAt(0) != '{'
+                    && ersteZeile.charAt(0) != '<' && ersteZeile.indexOf(trenner) >= 0;
+            return (inhalt ? INHALT : 0) + endung(dateiname, endung);
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink) throws IOException {
+            parser.get().parse(path, sink);
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink, Quarantine quarantine) throws IOException {
+            parser.get().mitQuarantaene(quarantine).parse(path, sink);
+        }
+    }
+
+    private static final class Json implements EntryReader {
+        @Override
+        public String format() {
+            return "json";
+        }
+
+        @Override
+        public int erkenne(String dateiname, String anfang) {
+            boolean inhalt = anfang.startsWith("[") || anfang.startsWith("{");
+            return (inhalt ? INHALT : 0) + endung(dateiname, ".json", ".jsonl", ".ndjson");
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink) throws IOException {
+            lese(path, sink, null);
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink, Quarantine quarantine) throws IOException {
+            try (BufferedReader reader = Compression.leser(path)) {
+                uebertrage(new JSONEntryIterator(reader, path, quarantine), sink);
+            }
+        }
+    }
+
+    private static final class Xml implements EntryReader {
+        @Override
+        public String format() {
+            return "xml";
+        }
+
+        @Override
+        public int erkenne(String dateiname, String anfang) {
+            return (anfang.startsWith("<") ? INHALT : 0) + endung(dateiname, ".xml");
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink) throws IOException {
+            lese(path, sink, null);
+        }
+
+        @Override
+        public void lese(Path path, EntrySink sink, Quarantine quarantine) throws IOException {
+            try (BufferedReader reader = Compression.leser(path)) {
+                uebertrage(new XMLEntryIterator(reader, path, quarantine), sink);
+            }
+        }
+    }
+}
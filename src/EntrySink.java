@@ -0,0 +1,78 @@
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Receives parsed rows field by field, so a reader can hand its values to a consumer without building an
+ * {@link Entry} per row.
+ *
+ * Example:
+ * <pre>
+ *     List&lt;Entry&gt; entries = new ArrayList&lt;&gt;();
+ *     EntrySink sink = (id, studentName, haus, lehrerName, punkte) -&gt;
+ *             entries.add(new Entry(id, studentName, haus, lehrerName, punkte));
+ * </pre>
+ *
+ * Several consumers can be fed from one pass with {@link #andThen(EntrySink)}:
+ * <pre>
+ *     DelimitedParser.csv().parse(path, tabelle.andThen(hausIndex));
+ * </pre>
+ *
+ * Readers call {@link #accept(int, String, Haus, String, int, long)}, which adds the award timestamp of the row.
+ * It forwards to the five-argument method by default, so only sinks that use the timestamp override it.
+ */
+@FunctionalInterface
+public interface EntrySink {
+    /** The timestamp of a row whose export has no {@code zeitpunkt}. */
+    long KEIN_ZEITPUNKT = Long.MIN_VALUE;
+
+    void accept(int id, String studentName, Haus haus, String lehrerName, int punkte);
+
+    /**
+     * Receives a row together with its award timestamp.
+     *
+     * @param zeitpunkt the timestamp in seconds as described in {@link Timestamps}, or {@link #KEIN_ZEITPUNKT}
+     */
+    default void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+        accept(id, studentName, haus, lehrerName, punkte);
+    }
+
+    /**
+     * @param naechster the sink to receive each row after this one
+     * @return a sink passing each row, including its timestamp, to this sink and then to {@code naechster}
+     */
+    default EntrySink andThen(EntrySink naechster) {
+        EntrySink erster = this;
+        return new EntrySink() {
+            @Override
+            public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+                erster.accept(id, studentName, haus, lehrerName, punkte);
+                naechster.accept(id, studentName, haus, lehrerName, punkte);
+            }
+
+            @Override
+            public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+                erster.accept(id, studentName, haus, lehrerName, punkte, zeitpunkt);
+                naechster.accept(id, studentName, haus, lehrerName, punkte, zeitpunkt);
+            }
+        };
+    }
+
+    /**
+     * @param entries the list to add to
+     * @return a sink adding every row as an {@link Entry} to {@code entries}, with its timestamp
+     */
+    static EntrySink in(List<Entry> entries) {
+        return new EntrySink() {
+            @Override
+            public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+                entries.add(new Entry(id, studentName, haus, lehrerName, punkte));
+            }
+
+            @Override
+            public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+                LocalDateTime datum = Timestamps.zeitpunkt(zeitpunkt);
+                entries.add(new Entry(id, studentName, haus, lehrerName, punkte, datum));
+            }
+        };
+    }
+}
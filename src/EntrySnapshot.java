@@ -0,0 +1,245 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact binary snapshot of an {@link EntryTable} that can be opened without parsing text.
+ *
+ * File Layout (all numbers big-endian):
+ * <pre>
+ * "HGWS"                 magic
+ * int     version        1 without timestamps, 2 with timestamps
+ * long    zeilen         number of records
+ * int     n              number of student names, followed by n times: int length, UTF-8 bytes
+ * int     m              number of teacher names, followed by m times: int length, UTF-8 bytes
+ * zeilen * 17 bytes      version 1 records: int id, int student code, int teacher code, int punkte, byte haus ordinal
+ * zeilen * 25 bytes      version 2 records: the same fields followed by long zeitpunkt
+ * </pre>
+ * <p>
+ * A table with at least one timestamp, see {@link EntryTable#hatZeitpunkte()}, is written as version 2 with the
+ * seconds of {@link Timestamps} and {@link EntrySink#KEIN_ZEITPUNKT} for the rows without one; any other table is
+ * written as version 1. Both versions can be opened.
+ * <p>
+ * {@link #oeffne(Path)} reads only the header and the two name dictionaries; the records are memory-mapped and
+ * decoded on access, so opening a snapshot takes the same time regardless of its row count.
+ *
+ * Example:
+ * <pre>
+ *     EntrySnapshot.schreibe(Path.of("punkte.hgws"), app.leseCSVTabelle("punkte.csv"));
+ *
+ *     EntrySnapshot snapshot = EntrySnapshot.oeffne(Path.of("punkte.hgws"));
+ *     HausAggregator punkte = new HausAggregator();
+ *     snapshot.forEach(punkte);
+ * </pre>
+ */
+public final class EntrySnapshot {
+    private static final int MAGIC = 0x48475753; // "HGWS"
+    private static final int VERSION = 1;
+    private static final int VERSION_MIT_ZEITPUNKT = 2;
+    private static final int RECORD_GROESSE = 17;
+    private static final int RECORD_GROESSE_MIT_ZEITPUNKT = RECORD_GROESSE + 8;
+    private static final Haus[] HAEUSER = Haus.values();
+
+    private final long zeilen;
+    private final String[] studentNamen;
+    private final String[] lehrerNamen;
+    private final ByteBuffer[] segmente;
+    private final int recordGroesse;
+    private final long zeilenProSegment;
+
+    private EntrySnapshot(long zeilen, String[] studentNamen, String[] lehrerNamen, ByteBuffer[] segmente, int recordGroesse) {
+        this.zeilen = zeilen;
+        this.studentNamen = studentNamen;
+        this.lehrerNamen = lehrerNamen;
+        this.segmente = segmente;
+        this.recordGroesse = recordGroesse;
+        this.zeilenProSegment = Integer.MAX_VALUE / recordGroesse;
+    }
+
+    /**
+     * Writes the table as a snapshot, replacing an existing file.
+     *
+     * @param path    the snapshot file to write
+     * @param tabelle the rows to store
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public static void schreibe(Path path, EntryTable tabelle) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            boolean mitZeitpunkt = tabelle.hatZeitpunkte();
+            out.writeInt(MAGIC);
+            out.writeInt(mitZeitpunkt ? VERSION_MIT_ZEITPUNKT : VERSION);
+            out.writeLong(tabelle.size());
+            schreibeNamen(out, tabelle.studentNamen());
+            schreibeNamen(out, tabelle.lehrerNamen());
+
+            for (int i = 0; i < tabelle.size(); i++) {
+                out.writeInt(tabelle.id(i));
+                out.writeInt(tabelle.studentCode(i));
+                out.writeInt(tabelle.lehrerCode(i));
+                out.writeInt(tabelle.punkte(i));
+                out.writeByte(tabelle.hausOrdinal(i));
+                if (mitZeitpunkt) {
+                    out.writeLong(tabelle.zeitpunkt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a snapshot written by {@link #schreibe(Path, EntryTable)}. Only the name dictionaries are read eagerly.
+     *
+     * @param path the snapshot file
+     * @return a read-only view of the snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static EntrySnapshot oeffne(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long groesse = channel.size();
+            ByteBuffer kopf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(groesse, Integer.MAX_VALUE));
+            if (kopf.remaining() < 16 || kopf.getInt() != MAGIC) {
+                throw new IOException("Not an entry snapshot: " + path);
+            }
+            int version = kopf.getInt();
+            if (version != VERSION && version != VERSION_MIT_ZEITPUNKT) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            int recordGroesse = version == VERSION ? RECORD_GROESSE : RECORD_GROESSE_MIT_ZEITPUNKT;
+            long zeilenProSegment = Integer.MAX_VALUE / recordGroesse;
+            long zeilen = kopf.getLong();
+            String[] studentNamen = leseNamen(kopf, path);
+            String[] lehrerNamen = leseNamen(kopf, path);
+
+            long datenStart = kopf.position();
+            if (groesse - datenStart != zeilen * recordGroesse) {
+                throw new IOException("Truncated snapshot " + path + ": expected " + zeilen + " records");
+            }
+
+            ByteBuffer[] segmente = new ByteBuffer[(int) ((zeilen + zeilenProSegment - 1) / zeilenProSegment)];
+            for (int s = 0; s < segmente.length; s++) {
+                long erste = s * zeilenProSegment;
+                long anzahl = Math.min(zeilenProSegment, zeilen - erste);
+                segmente[s] = channel.map(FileChannel.MapMode.READ_ONLY, datenStart + erste * recordGroesse, anzahl * recordGroesse);
+            }
+            return new EntrySnapshot(zeilen, studentNamen, lehrerNamen, segmente, recordGroesse);
+        }
+    }
+
+    public long size() {
+        return zeilen;
+    }
+
+    public int id(long zeile) {
+        return segment(zeile).getInt(offset(zeile));
+    }
+
+    public int punkte(long zeile) {
+        return segment(zeile).getInt(offset(zeile) + 12);
+    }
+
+    /**
+     * @return the house of the row, or {@code null} if the row had none
+     */
+    public Haus haus(long zeile) {
+        byte ordinal = segment(zeile).get(offset(zeile) + 16);
+        return ordinal < 0 ? null : HAEUSER[ordinal];
+    }
+
+    /**
+     * @return the award timestamp of the row in seconds as described in {@link Timestamps}, or
+     *         {@link EntrySink#KEIN_ZEITPUNKT} if the row had none or the snapshot is of version 1
+     */
+    public long zeitpunkt(long zeile) {
+        ByteBuffer segment = segment(zeile);
+        return recordGroesse == RECORD_GROESSE ? EntrySink.KEIN_ZEITPUNKT : segment.getLong(offset(zeile) + 17);
+    }
+
+    public String studentName(long zeile) {
+        int code = segment(zeile).getInt(offset(zeile) + 4);
+        return code < 0 ? null : studentNamen[code];
+    }
+
+    public String lehrerName(long zeile) {
+        int code = segment(zeile).getInt(offset(zeile) + 8);
+        return code < 0 ? null : lehrerNamen[code];
+    }
+
+    /**
+     * Materializes a row as a new {@link Entry}.
+     *
+     * @param zeile the row index
+     * @return a new entry holding the row's values
+     */
+    public Entry get(long zeile) {
+        return new Entry(id(zeile), studentName(zeile), haus(zeile), lehrerName(zeile), punkte(zeile),
+                Timestamps.zeitpunkt(zeitpunkt(zeile)));
+    }
+
+    /**
+     * Hands every row to {@code sink}, in order, with its timestamp.
+     *
+     * @param sink receives one call per row
+     */
+    public void forEach(EntrySink sink) {
+        boolean mitZeitpunkt = recordGroesse == RECORD_GROESSE_MIT_ZEITPUNKT;
+        for (ByteBuffer segment : segmente) {
+            for (int offset = 0; offset < segment.limit(); offset += recordGroesse) {
+                int student = segment.getInt(offset + 4);
+                int lehrer = segment.getInt(offset + 8);
+                byte haus = segment.get(offset + 16);
+                sink.accept(segment.getInt(offset),
+                        student < 0 ? null : studentNamen[student],
+                        haus < 0 ? null : HAEUSER[haus],
+                        lehrer < 0 ? null : lehrerNamen[lehrer],
+                        segment.getInt(offset + 12),
+                        mitZeitpunkt ? segment.getLong(offset + 17) : EntrySink.KEIN_ZEITPUNKT);
+            }
+        }
+    }
+
+    private ByteBuffer segment(long zeile) {
+        if (zeile < 0 || zeile >= zeilen) {
+            throw new IndexOutOfBoundsException("Row " + zeile + " out of bounds for size " + zeilen);
+        }
+        return segmente[(int) (zeile / zeilenProSegment)];
+    }
+
+    private int offset(long zeile) {
+        return (int) (zeile % zeilenProSegment) * recordGroesse;
+    }
+
+    private static void schreibeNamen(DataOutputStream out, NameDictionary namen) throws IOException {
+        out.writeInt(namen.size());
+        for (int code = 0; code < namen.size(); code++) {
+            byte[] bytes = namen.name(code).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String[] leseNamen(ByteBuffer kopf, Path path) throws IOException {
+        int anzahl = kopf.getInt();
+        if (anzahl < 0) {
+            throw new IOException("Corrupt name dictionary in " + path);
+        }
+        String[] namen = new String[anzahl];
+        byte[] puffer = new byte[64];
+        for (int i = 0; i < anzahl; i++) {
+            int laenge = kopf.getInt();
+            if (laenge < 0 || laenge > kopf.remaining()) {
+                throw new IOException("Corrupt name dictionary in " + path);
+            }
+            if (laenge > puffer.length) {
+                puffer = new byte[laenge];
+            }
+            kopf.get(puffer, 0, laenge);
+            namen[i] = new String(puffer, 0, laenge, StandardCharsets.UTF_8);
+        }
+        return namen;
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * A columnar alternative to {@code List<Entry>} that stores every field in a primitive array.
+ * Student and teacher names are dictionary encoded through a {@link NameDictionary}, so each row costs
+ * 17 bytes ({@code int} id, {@code int} punkte, {@code byte} haus ordinal and two {@code int} name codes)
+ * instead of an {@link Entry} object with its own header and references. The award timestamps are kept in a
+ * {@code long} column of seconds as described in {@link Timestamps}, adding 8 bytes per row; it is only allocated
+ * once the first row with a timestamp arrives, so tables of exports without {@code zeitpunkt} stay at 17 bytes.
+ *
+ * Example:
+ * <pre>
+ *     EntryTable tabelle = new EntryTable();
+ *     DelimitedParser.csv().parse(Path.of("punkte.csv"), tabelle);
+ *     for (int i = 0; i &lt; tabelle.size(); i++) {
+ *         System.out.println(tabelle.studentName(i) + ": " + tabelle.punkte(i));
+ *     }
+ * </pre>
+ * <p>
+ * The table is append-only and not thread-safe.
+ */
+public final class EntryTable implements EntrySink {
+    private static final byte KEIN_HAUS = -1;
+    private static final Haus[] HAEUSER = Haus.values();
+
+    private final NameDictionary studentNamen = new NameDictionary();
+    private final NameDictionary lehrerNamen = new NameDictionary();
+
+    private int[] ids;
+    private int[] punkte;
+    private byte[] haeuser;
+    private int[] studenten;
+    private int[] lehrer;
+    // null while no row had a timestamp
+    private long[] zeitpunkte;
+    private int groesse;
+
+    public EntryTable() {
+        this(1024);
+    }
+
+    /**
+     * @param kapazitaet the number of rows to reserve space for up front
+     */
+    public EntryTable(int kapazitaet) {
+        int k = Math.max(kapazitaet, 16);
+        ids = new int[k];
+        punkte = new int[k];
+        haeuser = new byte[k];
+        studenten = new int[k];
+        lehrer = new int[k];
+    }
+
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        accept(id, studentName, haus, lehrerName, punkte, KEIN_ZEITPUNKT);
+    }
+
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+        if (groesse == ids.length) {
+            wachse();
+        }
+        this.ids[groesse] = id;
+        this.punkte[groesse] = punkte;
+        this.haeuser[groesse] = haus == null ? KEIN_HAUS : (byte) haus.ordinal();
+        this.studenten[groesse] = studentNamen.code(studentName);
+        this.lehrer[groesse] = lehrerNamen.code(lehrerName);
+        if (zeitpunkte == null && zeitpunkt != KEIN_ZEITPUNKT) {
+            zeitpunkte = new long[ids.length];
+            Arrays.fill(zeitpunkte, 0, groesse, KEIN_ZEITPUNKT);
+        }
+        if (zeitpunkte != null) {
+            zeitpunkte[groesse] = zeitpunkt;
+        }
+        groesse++;
+    }
+
+    /**
+     * Appends the fields of {@code entry} as a new row.
+     *
+     * @param entry the entry to copy
+     */
+    public void add(Entry entry) {
+        accept(entry.getId(), entry.getStudentName(), entry.getHaus(), entry.getLehrerName(), entry.getPunkte(),
+                Timestamps.sekunden(entry.getZeitpunkt()));
+    }
+
+    public int size() {
+        return groesse;
+    }
+
+    public int id(int zeile) {
+        pruefe(zeile);
+        return ids[zeile];
+    }
+
+    public int punkte(int zeile) {
+        pruefe(zeile);
+        return punkte[zeile];
+    }
+
+    /**
+     * @return the house of the row, or {@code null} if the row had none
+     */
+    public Haus haus(int zeile) {
+        pruefe(zeile);
+        byte ordinal = haeuser[zeile];
+        return ordinal == KEIN_HAUS ? null : HAEUSER[ordinal];
+    }
+
+    /**
+     * @return the {@link Haus#ordinal()} of the row, or {@code -1} if the row had no house
+     */
+    public int hausOrdinal(int zeile) {
+        pruefe(zeile);
+        return haeuser[zeile];
+    }
+
+    /**
+     * @return the award timestamp of the row in seconds as described in {@link Timestamps}, or
+     *         {@link EntrySink#KEIN_ZEITPUNKT} if the row had none
+     */
+    public long zeitpunkt(int zeile) {
+        pruefe(zeile);
+        return zeitpunkte == null ? KEIN_ZEITPUNKT : zeitpunkte[zeile];
+    }
+
+    /**
+     * @return whether any row has a timestamp
+     */
+    public boolean hatZeitpunkte() {
+        return zeitpunkte != null;
+    }
+
+    public String studentName(int zeile) {
+        return studentNamen.name(studentCode(zeile));
+    }
+
+    public String lehrerName(int zeile) {
+        return lehrerNamen.name(lehrerCode(zeile));
+    }
+
+    /**
+     * @return the code of the row's student name in {@link #studentNamen()}
+     */
+    public int studentCode(int zeile) {
+        pruefe(zeile);
+        return studenten[zeile];
+    }
+
+    /**
+     * @return the code of the row's teacher name in {@link #lehrerNamen()}
+     */
+    public int lehrerCode(int zeile) {
+        pruefe(zeile);
+        return lehrer[zeile];
+    }
+
+    public NameDictionary studentNamen() {
+        return studentNamen;
+    }
+
+    public NameDictionary lehrerNamen() {
+        return lehrerNamen;
+    }
+
+    /**
+     * Materializes a row as a new {@link Entry}.
+     *
+     * @param zeile the row index
+     * @return a new entry holding the row's values
+     */
+    public Entry get(int zeile) {
+        return new Entry(id(zeile), studentName(zeile), haus(zeile), lehrerName(zeile), punkte(zeile),
+                Timestamps.zeitpunkt(zeitpunkt(zeile)));
+    }
+
+    /**
+     * Shrinks the columns to the number of rows, releasing the spare capacity left by growing.
+     */
+    public void trimToSize() {
+        ids = Arrays.copyOf(ids, groesse);
+        punkte = Arrays.copyOf(punkte, groesse);
+        haeuser = Arrays.copyOf(haeuser, groesse);
+        studenten = Arrays.copyOf(studenten, groesse);
+        lehrer = Arrays.copyOf(lehrer, groesse);
+        if (zeitpunkte != null) {
+            zeitpunkte = Arrays.copyOf(zeitpunkte, groesse);
+        }
+    }
+
+    private void wachse() {
+        int kapazitaet = Math.max(16, groesse + (groesse >> 1));
+        ids = Arrays.copyOf(ids, kapazitaet);
+        punkte = Arrays.copyOf(punkte, kapazitaet);
+        haeuser = Arrays.copyOf(haeuser, kapazitaet);
+        studenten = Arrays.copyOf(studenten, kapazitaet);
+        lehrer = Arrays.copyOf(lehrer, kapazitaet);
+        if (zeitpunkte != null) {
+            zeitpunkte = Arrays.copyOf(zeitpunkte, kapazitaet);
+        }
+    }
+
+    private void pruefe(int zeile) {
+        if (zeile < 0 || zeile >= groesse) {
+            throw new IndexOutOfBoundsException("Row " + zeile + " out of bounds for size " + groesse);
+        }
+    }
+}
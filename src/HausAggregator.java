@@ -0,0 +1,281 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Accumulates points per {@link Haus} in primitive arrays indexed by {@link Haus#ordinal()}.
+ * Besides the total it tracks the number of awards and the smallest and largest single award per house.
+ * Totals are kept as {@code long}, so they cannot overflow even when many large {@code int} awards are summed.
+ * Adding a row does not allocate, which makes one instance cheap to reuse for a whole file.
+ *
+ * Example:
+ * <pre>
+ *     HausAggregator punkte = HausAggregator.von(entries.stream());
+ *     for (Haus haus : punkte.rangfolge()) {
+ *         System.out.println(haus + "#" + punkte.summe(haus) + " (avg " + punkte.durchschnitt(haus) + ")");
+ *     }
+ * </pre>
+ * <p>
+ * Rows without a house are ignored. An instance is not thread-safe; concurrent callers aggregate into
+ * their own instances and combine them with {@link #merge(HausAggregator)}, as {@link #parallel(List, int)} does.
+ */
+public final class HausAggregator implements EntrySink {
+    private static final Haus[] HAEUSER = Haus.values();
+    private static final int MIN_BLOCK = 8192;
+
+    private final long[] summen = new long[HAEUSER.length];
+    private final long[] anzahl = new long[HAEUSER.length];
+    private final int[] minimum = new int[HAEUSER.length];
+    private final int[] maximum = new int[HAEUSER.length];
+
+    public HausAggregator() {
+        Arrays.fill(minimum, Integer.MAX_VALUE);
+        Arrays.fill(maximum, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Aggregates the entries in a single pass.
+     *
+     * @param entries the entries to aggregate; the stream is consumed but not closed
+     * @return a new aggregator holding the totals
+     */
+    public static HausAggregator von(Stream<Entry> entries) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("aggregiere")) {
+            HausAggregator aggregator = new HausAggregator();
+            entries.forEach(aggregator::add);
+            messung.zeilen(aggregator.gesamtAnzahl());
+            return aggregator;
+        }
+    }
+
+    /**
+     * Aggregates the {@code haus} and {@code punkte} columns of the table.
+     *
+     * @param tabelle the table to aggregate
+     * @return a new aggregator holding the totals
+     */
+    public static HausAggregator von(EntryTable tabelle) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("aggregiere")) {
+            HausAggregator aggregator = new HausAggregator();
+            aggregator.addZeilen(tabelle, 0, tabelle.size());
+            messung.zeilen(tabelle.size());
+            return aggregator;
+        }
+    }
+
+    /**
+     * Aggregates the entries on a {@link ForkJoinPool}. The list is split into index ranges, every task sums its
+     * range into its own aggregator and the partial aggregators are merged on the way back up.
+     *
+     * @param entries       the entries to aggregate; should be {@link RandomAccess}, otherwise it is copied first
+     * @param parallelitaet the number of worker threads
+     * @return a new aggregator holding the totals
+     */
+    public static HausAggregator parallel(List<Entry> entries, int parallelitaet) {
+        List<Entry> liste = entries instanceof RandomAccess ? entries : List.copyOf(entries);
+        return parallel(liste.size(), parallelitaet, (aggregator, von, bis) -> {
+            for (int i = von; i < bis; i++) {
+                aggregator.add(liste.get(i));
+            }
+        });
+    }
+
+    /**
+     * Parallel variant of {@link #von(EntryTable)}, see {@link #parallel(List, int)}.
+     *
+     * @param tabelle       the table to aggregate
+     * @param parallelitaet the number of worker threads
+     * @return a new aggregator holding the totals
+     */
+    public static HausAggregator parallel(EntryTable tabelle, int parallelitaet) {
+        return parallel(tabelle.size(), parallelitaet, (aggregator, von, bis) -> aggregator.addZeilen(tabelle, von, bis));
+    }
+
+    /**
+     * Combines partial aggregators, for example the per-range sinks returned by
+     * {@link DelimitedParser#parseParallel(java.nio.file.Path, int, java.util.function.Supplier)}.
+     *
+     * @param teile the partial aggregators, in any order
+     * @return a new aggregator holding the combined totals
+     */
+    public static HausAggregator vereinige(List<HausAggregator> teile) {
+        HausAggregator aggregator = new HausAggregator();
+        for (HausAggregator teil : teile) {
+            aggregator.merge(teil);
+        }
+        return aggregator;
+    }
+
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        add(haus, punkte);
+    }
+
+    public void add(Entry entry) {
+        add(entry.getHaus(), entry.getPunkte());
+    }
+
+    /**
+     * Records a single award.
+     *
+     * @param haus   the house receiving the points; {@code null} is ignored
+     * @param punkte the points awarded, may be negative
+     */
+    public void add(Haus haus, int punkte) {
+        if (haus != null) {
+            add(haus.ordinal(), punkte);
+        }
+    }
+
+    /**
+     * Adds the totals of {@code other} to this aggregator.
+     *
+     * @param other the aggregator to merge; it is not modified
+     * @return this aggregator
+     */
+    public HausAggregator merge(HausAggregator other) {
+        for (int i = 0; i < HAEUSER.length; i++) {
+            summen[i] += other.summen[i];
+            anzahl[i] += other.anzahl[i];
+            minimum[i] = Math.min(minimum[i], other.minimum[i]);
+            maximum[i] = Math.max(maximum[i], other.maximum[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Restores the aggregates of one house, e.g. from a {@link StandingsCheckpoint}.
+     *
+     * @param haus    the house to overwrite
+     * @param summe   the total points
+     * @param anzahl  the number of awards
+     * @param minimum the smallest single award, ignored if {@code anzahl} is {@code 0}
+     * @param maximum the largest single award, ignored if {@code anzahl} is {@code 0}
+     */
+    void setze(Haus haus, long summe, long anzahl, int minimum, int maximum) {
+        int i = haus.ordinal();
+        summen[i] = summe;
+        this.anzahl[i] = anzahl;
+        this.minimum[i] = anzahl == 0 ? Integer.MAX_VALUE : minimum;
+        this.maximum[i] = anzahl == 0 ? Integer.MIN_VALUE : maximum;
+    }
+
+    private long gesamtAnzahl() {
+        long gesamt = 0;
+        for (long n : anzahl) {
+            gesamt += n;
+        }
+        return gesamt;
+    }
+
+    public long summe(Haus haus) {
+        return summen[haus.ordinal()];
+    }
+
+    public long anzahl(Haus haus) {
+        return anzahl[haus.ordinal()];
+    }
+
+    /**
+     * @return the smallest single award of the house, or {@code 0} if it has none
+     */
+    public int minimum(Haus haus) {
+        return anzahl[haus.ordinal()] == 0 ? 0 : minimum[haus.ordinal()];
+    }
+
+    /**
+     * @return the largest single award of the house, or {@code 0} if it has none
+     */
+    public int maximum(Haus haus) {
+        return anzahl[haus.ordinal()] == 0 ? 0 : maximum[haus.ordinal()];
+    }
+
+    /**
+     * @return the mean award of the house, or {@code 0.0} if it has none
+     */
+    public double durchschnitt(Haus haus) {
+        long n = anzahl[haus.ordinal()];
+        return n == 0 ? 0.0 : (double) summen[haus.ordinal()] / n;
+    }
+
+    /**
+     * @return all houses ordered by total points, highest first; ties keep the declaration order of {@link Haus}
+     */
+    public Haus[] rangfolge() {
+        Haus[] rangfolge = HAEUSER.clone();
+        Arrays.sort(rangfolge, Comparator.comparingLong(this::summe).reversed());
+        return rangfolge;
+    }
+
+    private void add(int haus, int punkte) {
+        summen[haus] += punkte;
+        anzahl[haus]++;
+        if (punkte < minimum[haus]) {
+            minimum[haus] = punkte;
+        }
+        if (punkte > maximum[haus]) {
+            maximum[haus] = punkte;
+        }
+    }
+
+    private void addZeilen(EntryTable tabelle, int von, int bis) {
+        for (int i = von; i < bis; i++) {
+            int haus = tabelle.hausOrdinal(i);
+            if (haus >= 0) {
+                add(haus, tabelle.punkte(i));
+            }
+        }
+    }
+
+    private static HausAggregator parallel(int groesse, int parallelitaet, Bereich bereich) {
+        if (parallelitaet < 1) {
+            throw new IllegalArgumentException("parallelitaet must be at least 1 but was " + parallelitaet);
+        }
+        int block = Math.max(MIN_BLOCK, groesse / (parallelitaet * 4));
+        ForkJoinPool pool = new ForkJoinPool(parallelitaet);
+        try {
+            return pool.invoke(new Teilsumme(bereich, 0, groesse, block));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Bereich {
+        void aggregiere(HausAggregator aggregator, int von, int bis);
+    }
+
+    private static final class Teilsumme extends RecursiveTask<HausAggregator> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Bereich bereich;
+        private final int von;
+        private final int bis;
+        private final int block;
+
+        Teilsumme(Bereich bereich, int von, int bis, int block) {
+            this.bereich = bereich;
+            this.von = von;
+            this.bis = bis;
+            this.block = block;
+        }
+
+        @Override
+        protected HausAggregator compute() {
+            if (bis - von <= block) {
+                HausAggregator aggregator = new HausAggregator();
+                bereich.aggregiere(aggregator, von, bis);
+                return aggregator;
+            }
+            int mitte = (von + bis) >>> 1;
+            Teilsumme links = new Teilsumme(bereich, von, mitte, block);
+            links.fork();
+            HausAggregator rechts = new Teilsumme(bereich, mitte, bis, block).compute();
+            return links.join().merge(rechts);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary index from each house to the distinct names of its students. The index is filled while the entries
+ * are read, as an {@link EntrySink} or through {@link #add(Entry)}, so a house query returns the stored names
+ * directly instead of scanning every entry again.
+ *
+ * Example:
+ * <pre>
+ *     EntryTable tabelle = new EntryTable();
+ *     HausIndex index = new HausIndex();
+ *     DelimitedParser.csv().parse(Path.of("punkte.csv"), tabelle.andThen(index));
+ *     index.studierende(Haus.Gryffindor);   // [Harry Potter, Ron Weasley, Hermione Granger]
+ * </pre>
+ */
+public final class HausIndex implements EntrySink {
+    private final Map<Haus, Set<String>> studierende = new EnumMap<>(Haus.class);
+
+    public HausIndex() {
+        for (Haus haus : Haus.values()) {
+            studierende.put(haus, new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * @param entries the entries to index
+     * @return a new index over the entries
+     */
+    public static HausIndex von(List<Entry> entries) {
+        HausIndex index = new HausIndex();
+        for (Entry entry : entries) {
+            index.add(entry);
+        }
+        return index;
+    }
+
+    /**
+     * @param tabelle the table to index
+     * @return a new index over the rows of the table
+     */
+    public static HausIndex von(EntryTable tabelle) {
+        HausIndex index = new HausIndex();
+        for (int i = 0; i < tabelle.size(); i++) {
+            index.accept(tabelle.id(i), tabelle.studentName(i), tabelle.haus(i), tabelle.lehrerName(i), tabelle.punkte(i));
+        }
+        return index;
+    }
+
+    /**
+     * Adds the student of the entry to the index of its house.
+     *
+     * @param entry the entry to add
+     */
+    public void add(Entry entry) {
+        accept(entry.getId(), entry.getStudentName(), entry.getHaus(), entry.getLehrerName(), entry.getPunkte());
+    }
+
+    /**
+     * Adds the student of one row to the index of its house. Rows without a house or student name are ignored.
+     */
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        if (haus != null && studentName != null) {
+            studierende.get(haus).add(studentName);
+        }
+    }
+
+    /**
+     * Returns the distinct students of a house in the order they were first seen. The result is a read-only
+     * view, so it reflects entries added later without being rebuilt.
+     *
+     * @param haus the house to query
+     * @return the names of the students of the house
+     */
+    public Set<String> studierende(Haus haus) {
+        return Collections.unmodifiableSet(studierende.get(haus));
+    }
+}
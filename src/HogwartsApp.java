@@ -1,17 +1,20 @@
 import java.io.BufferedReader;
-import java.io.FileWriter;
+import java.io.Closeable;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 
 public class HogwartsApp {
+    private final ResultWriter resultWriter = new ResultWriter();
 
     //todo for XML
     /**
@@ -41,7 +44,7 @@ public class HogwartsApp {
      *     }
      * </pre>
      */
-    public static final Pattern ID_PATTERN = Pattern.compile("\\p{javaSpaceChar}*<id>(.*)</severity>");
+    public static final Pattern ID_PATTERN = Pattern.compile("\\p{javaSpaceChar}*<id>(.*)</id>");
 
     /**
      * A pattern to match and extract the value inside the <studentName> tag from an XML-like structure.
@@ -159,6 +162,52 @@ public class HogwartsApp {
     public static final Pattern PUNKTE_PATTERN = Pattern.compile("\\p{javaSpaceChar}*<punkte>(.*)</punkte>");
 
 
+    /**
+     * Reads a file in any supported format. The format is detected from the file name and the first bytes of the
+     * file by {@link EntryReaders#fuer(Path)}, so one call handles all five formats of this class as well as any
+     * format added through the {@link EntryReader} service interface.
+     *
+     * Example:
+     * <pre>
+     *     List&lt;Entry&gt; entries = app.lese("export.json");
+     * </pre>
+     *
+     * @param path the path to the file to be read
+     * @return a list of {@link Entry} objects populated with data from the file
+     * @throws IOException if an I/O error occurs during file reading or the format is not recognized
+     */
+    public List<Entry> lese(String path) throws IOException {
+        return lese(path, null);
+    }
+
+    /**
+     * Lenient variant of {@link #lese(String)}: rows that cannot be parsed, e.g. with a short line, a {@code punkte}
+     * value that is not a number or an unknown house, are reported to {@code quarantine} with their offset and the
+     * reason and skipped, so one bad row no longer discards the whole file.
+     *
+     * Example:
+     * <pre>
+     *     try (Quarantine quarantine = new Quarantine(Path.of("quarantaene.tsv"), 100)) {
+     *         List&lt;Entry&gt; entries = app.lese("export.csv", quarantine);
+     *     }
+     * </pre>
+     *
+     * @param path       the path to the file to be read
+     * @param quarantine receives the malformed rows, or {@code null} to fail on the first one
+     * @return a list of the well-formed {@link Entry} objects of the file
+     * @throws IOException if an I/O error occurs, the format is not recognized or the error budget of the
+     *                     quarantine is exceeded
+     */
+    public List<Entry> lese(String path, Quarantine quarantine) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("lese")) {
+            Path datei = Path.of(path);
+            List<Entry> entries = new ArrayList<>();
+            EntryReaders.fuer(datei).lese(datei, sammleIn(entries), quarantine);
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
+
     // TODO for .txt
     /**
      * Reads a file line by line, parses its content based on a predefined format, and constructs a list of {@link Entry} objects.
@@ -184,26 +233,61 @@ public class HogwartsApp {
      * @return a list of {@link Entry} objects populated with data from the file
      * @throws IOException if an I/O error occurs during file reading
      * @see Entry
+     * @see #leseDateiStream(String)
      */
     public List<Entry> leseDatei(String path) throws IOException {
-        Path filePath = Path.of(path);
-        List<Entry> entries = new ArrayList<>();
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseDatei")) {
+            List<Entry> entries = sammle(leseDateiStream(path));
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
 
-        try(BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] fields = line.split("&");
-                Entry entry = new Entry(Integer.parseInt(fields[0]),fields[1], Haus.valueOf(fields[2]),fields[3],Integer.parseInt(fields[4]));
+    /**
+     * Streaming variant of {@link #leseDatei(String)}. The returned stream is backed by the open file and parses
+     * one line per element, so only the entry currently being processed is held in memory.
+     *
+     * Usage: the stream must be closed to release the underlying file handle, preferably with try-with-resources.
+     * <pre>
+     *     try (Stream&lt;Entry&gt; entries = app.leseDateiStream("punkte.txt")) {
+     *         app.schreibeDatei("ergebnis.txt", entries);
+     *     }
+     * </pre>
+     * I/O errors that occur while the stream is consumed are rethrown as {@link UncheckedIOException}.
+     *
+     * @param path the path to the file to be read
+     * @return a lazily evaluated stream of {@link Entry} objects
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<Entry> leseDateiStream(String path) throws IOException {
+        BufferedReader reader = Compression.leser(Path.of(path));
+        return reader.lines()
+                .map(HogwartsApp::parseDateiZeile)
+                .onClose(() -> schliesse(reader));
+    }
 
-                entries.add(entry);
-            }
+    /**
+     * Parallel variant of {@link #leseDatei(String)}. The file is split into byte ranges aligned to line breaks,
+     * which are parsed concurrently by {@link DelimitedParser#parseParallel(Path, int, java.util.function.Supplier)}
+     * and merged back in file order.
+     *
+     * @param path          the path to the file to be read
+     * @param parallelitaet the number of worker threads, e.g. {@code Runtime.getRuntime().availableProcessors()}
+     * @return a list of {@link Entry} objects in the same order as in the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public List<Entry> leseDateiParallel(String path, int parallelitaet) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseDateiParallel")) {
+            List<Entry> entries = verbinde(DelimitedParser.ampersand().parseParallel(Path.of(path), parallelitaet, Teilliste::new));
+            messung.gelesen(path, entries.size());
             return entries;
         }
     }
 
     /**
-     * Reads a JSON-like file line by line, parses its content, and constructs a list of {@link Entry} objects.
-     * The file is expected to have a specific JSON-like structure where each object represents an {@link Entry}.
+     * Reads a JSON file, parses its content, and constructs a list of {@link Entry} objects.
+     * The file is expected to contain an array where each object represents an {@link Entry}, or one object per
+     * line (JSON Lines).
      *
      * Example JSON Format:
      * <pre>
@@ -227,81 +311,48 @@ public class HogwartsApp {
      *
      * Method Logic:
      * <ol>
-     *     <li>Validates the file starts with a square bracket {@code [} to confirm a JSON array structure.</li>
-     *     <li>Iterates through each JSON object in the array:
+     *     <li>Checks whether the file starts with a square bracket {@code [} (array) or a brace (JSON Lines).</li>
+     *     <li>Tokenizes each JSON object with a {@link JSONEntryIterator}:
      *         <ul>
-     *             <li>Extracts field names and values by splitting lines on the colon {@code :} character.</li>
+     *             <li>Reads field names and values token by token, independent of line breaks and formatting.</li>
      *             <li>Assigns the parsed values to the appropriate fields of an {@link Entry} object.</li>
      *         </ul>
      *     </li>
-     *     <li>Validates the file ends with a closing square bracket {@code ]}.</li>
+     *     <li>Validates the array ends with a closing square bracket {@code ]}.</li>
      * </ol>
      *
      * @param path the path to the JSON file to be read
      * @return a list of {@link Entry} objects populated with data from the JSON file
      * @throws IOException if an I/O error occurs or the file is not a valid JSON format
      * @see Entry
+     * @see #leseJSONStream(String)
      */
     //TODO .json
     public List<Entry> leseJSON(String path) throws IOException {
-        Path filePath = Path.of(path);
-        List<Entry> entries = new ArrayList<>();
-        try(BufferedReader reader = Files.newBufferedReader(filePath)) {
-            if (!reader.readLine().contains("[")) {
-                throw new IOException("Invalid JSON file");
-            }
-
-            String nextLine = reader.readLine();
-
-            while (!nextLine.contains("]")) {
-                if (!nextLine.contains("{")) {
-                    throw new IOException("Invalid JSON file");
-                }
-
-                Entry entry = new Entry(0,null,null,null,0);
-
-                for (int i = 0; i < 5; i++) {
-                    String line = reader.readLine();
-                    String fieldName = line.split(":")[0].replace("\"", "").trim();
-
-                    switch (fieldName) {
-                        case "id": {
-                            String s = line.split(":")[1].replace("\"", "").replace(",","").trim();
-                            entry.setId(Integer.parseInt(s));
-                            break;
-                        }
-                        case "studentName": {
-                            String s = line.split(":")[1].replace("\"", "").replace(",","").trim();
-                            entry.setStudentName(s);
-                            break;
-                        }
-                        case "haus": {
-                            String s = line.split(":")[1].replace("\"", "").replace(",","").trim();
-                            entry.setHaus(Haus.valueOf(s));
-                            break;
-                        }
-                        case "lehrerName": {
-                            String s = line.split(":")[1].replace("\"", "").replace(",","").trim();
-                            entry.setLehrerName(s);
-                            break;
-                        }
-                        case "punkte": {
-                            String s = line.split(":")[1].replace("\"", "").replace(",","").trim();
-                            entry.setPunkte(Integer.parseInt(s));
-                            break;
-                        }
-                    }
-                }
-
-                if (!reader.readLine().contains("}")) {
-                    throw new IOException("Invalid JSON file");
-                }
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseJSON")) {
+            List<Entry> entries = sammle(leseJSONStream(path));
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
 
-                entries.add(entry);
-                nextLine = reader.readLine();
-            }
+    /**
+     * Streaming variant of {@link #leseJSON(String)}. The opening bracket or brace is checked eagerly; every further
+     * object is only read from the file when the stream requests the next element.
+     *
+     * @param path the path to the JSON file to be read
+     * @return a lazily evaluated stream of {@link Entry} objects, to be closed by the caller
+     * @throws IOException if the file cannot be opened or starts with neither a JSON array nor an object
+     * @see #leseDateiStream(String)
+     */
+    public Stream<Entry> leseJSONStream(String path) throws IOException {
+        BufferedReader reader = Compression.leser(Path.of(path));
+        try {
+            return alsStream(new JSONEntryIterator(reader), reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
         }
-        return entries;
     }
 
 
@@ -319,8 +370,8 @@ public class HogwartsApp {
      *
      * Method Logic:
      * <ol>
-     *     <li>Reads the header row to determine the field names.</li>
-     *     <li>Iterates through each subsequent row, splitting the values by the comma delimiter {@code ,}.</li>
+     *     <li>Memory-maps the file and reads the header row to determine the field names.</li>
+     *     <li>Scans each subsequent row for the comma delimiter {@code ,} on the raw bytes.</li>
      *     <li>Maps the field names from the header to the corresponding values in each row.</li>
      *     <li>Populates an {@link Entry} object and adds it to the result list.</li>
      * </ol>
@@ -329,53 +380,46 @@ public class HogwartsApp {
      * @return a list of {@link Entry} objects populated with data from the CSV file
      * @throws IOException if an I/O error occurs during file reading
      * @see Entry
+     * @see DelimitedParser
+     * @see #leseCSVStream(String)
      */
     //TODO .csv
     public List<Entry> leseCSV(String path) throws IOException {
-        Path filePath = Path.of(path);
-        List<Entry> entries = new ArrayList<>();
-
-        try(BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String header = reader.readLine();
-            String[] fields = header.split(",");
-
-            String line = reader.readLine();
-            while(line != null) {
-                String[] values = line.split(",");
-
-                Entry entry = new Entry(0,null,null,null,0);
-
-                for(int i = 0; i < fields.length; i++) {
-                    String value = values[i].replace("\"", "");
-                    switch (fields[i]) {
-                        case "id": {
-                            entry.setId(Integer.parseInt(value));
-                            break;
-                        }
-                        case "studentName": {
-                            entry.setStudentName(value);
-                            break;
-                        }
-                        case "haus": {
-                            entry.setHaus(Haus.valueOf(value));
-                            break;
-                        }
-                        case "lehrerName": {
-                            entry.setLehrerName(value);
-                            break;
-                        }
-                        case "punkte": {
-                            entry.setPunkte(Integer.parseInt(value));
-                            break;
-                        }
-                    }
-                }
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseCSV")) {
+            List<Entry> entries = new ArrayList<>();
+            DelimitedParser.csv().parse(Path.of(path), sammleIn(entries));
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
 
-                entries.add(entry);
-                line = reader.readLine();
-            }
+    /**
+     * Parallel variant of {@link #leseCSV(String)}, see {@link #leseDateiParallel(String, int)}.
+     *
+     * @param path          the path to the CSV file to be read
+     * @param parallelitaet the number of worker threads
+     * @return a list of {@link Entry} objects in the same order as in the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public List<Entry> leseCSVParallel(String path, int parallelitaet) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseCSVParallel")) {
+            List<Entry> entries = verbinde(DelimitedParser.csv().parseParallel(Path.of(path), parallelitaet, Teilliste::new));
+            messung.gelesen(path, entries.size());
+            return entries;
         }
-        return entries;
+    }
+
+    /**
+     * Streaming variant of {@link #leseCSV(String)}. The header row is read eagerly to build the column mapping,
+     * every data row is parsed only when the stream requests it.
+     *
+     * @param path the path to the CSV file to be read
+     * @return a lazily evaluated stream of {@link Entry} objects, to be closed by the caller
+     * @throws IOException if the file cannot be opened or has no header row
+     * @see #leseDateiStream(String)
+     */
+    public Stream<Entry> leseCSVStream(String path) throws IOException {
+        return leseMitKopfzeile(path, ",");
     }
 
     /**
@@ -393,7 +437,7 @@ public class HogwartsApp {
      * Method Logic:
      * <ol>
      *     <li>Reads the header row to determine the field names.</li>
-     *     <li>Iterates through each subsequent row, splitting the values by the tab delimiter {@code \t}.</li>
+     *     <li>Memory-maps the file and scans each subsequent row for the tab delimiter {@code \t} on the raw bytes.</li>
      *     <li>Maps the field names from the header to the corresponding values in each row.</li>
      *     <li>Populates an {@link Entry} object and adds it to the result list.</li>
      * </ol>
@@ -402,129 +446,334 @@ public class HogwartsApp {
      * @return a list of {@link Entry} objects populated with data from the TSV file
      * @throws IOException if an I/O error occurs during file reading
      * @see Entry
+     * @see DelimitedParser
+     * @see #leseTSVStream(String)
      */
     //todo for XML
     public List<Entry> leseTSV(String path) throws IOException {
-        Path filePath = Path.of(path);
-        List<Entry> entries = new ArrayList<>();
-
-        try(BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String header = reader.readLine();
-            String[] fields = header.split("\t");
-
-            String line = reader.readLine();
-            while(line != null) {
-                String[] values = line.split("\t");
-
-                Entry entry = new Entry(0,null,null,null,0);
-
-                for(int i = 0; i < fields.length; i++) {
-                    String value = values[i].replace("\"", "");
-                    switch (fields[i]) {
-                        case "id": {
-                            entry.setId(Integer.parseInt(value));
-                            break;
-                        }
-                        case "studentName": {
-                            entry.setStudentName(value);
-                            break;
-                        }
-                        case "haus": {
-                            entry.setHaus(Haus.valueOf(value));
-                            break;
-                        }
-                        case "lehrerName": {
-                            entry.setLehrerName(value);
-                            break;
-                        }
-                        case "punkte": {
-                            entry.setPunkte(Integer.parseInt(value));
-                            break;
-                        }
-                    }
-                }
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseTSV")) {
+            List<Entry> entries = new ArrayList<>();
+            DelimitedParser.tsv().parse(Path.of(path), sammleIn(entries));
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
 
-                entries.add(entry);
-                line = reader.readLine();
-            }
+    /**
+     * Parallel variant of {@link #leseTSV(String)}, see {@link #leseDateiParallel(String, int)}.
+     *
+     * @param path          the path to the TSV file to be read
+     * @param parallelitaet the number of worker threads
+     * @return a list of {@link Entry} objects in the same order as in the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public List<Entry> leseTSVParallel(String path, int parallelitaet) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseTSVParallel")) {
+            List<Entry> entries = verbinde(DelimitedParser.tsv().parseParallel(Path.of(path), parallelitaet, Teilliste::new));
+            messung.gelesen(path, entries.size());
+            return entries;
         }
-        return entries;
     }
 
+    /**
+     * Streaming variant of {@link #leseTSV(String)}, see {@link #leseCSVStream(String)}.
+     *
+     * @param path the path to the TSV file to be read
+     * @return a lazily evaluated stream of {@link Entry} objects, to be closed by the caller
+     * @throws IOException if the file cannot be opened or has no header row
+     */
+    public Stream<Entry> leseTSVStream(String path) throws IOException {
+        return leseMitKopfzeile(path, "\t");
+    }
+
+    /**
+     * Reads an XML file, parses its content, and constructs a list of {@link Entry} objects.
+     * The root element must be {@code <entries>} with one {@code <entry>} element per {@link Entry}.
+     *
+     * Example XML Format:
+     * <pre>
+     * &lt;entries&gt;
+     *     &lt;entry&gt;
+     *         &lt;id&gt;1&lt;/id&gt;
+     *         &lt;studentName&gt;Harry Potter&lt;/studentName&gt;
+     *         &lt;haus&gt;Gryffindor&lt;/haus&gt;
+     *         &lt;lehrerName&gt;Professor McGonagall&lt;/lehrerName&gt;
+     *         &lt;punkte&gt;50&lt;/punkte&gt;
+     *     &lt;/entry&gt;
+     * &lt;/entries&gt;
+     * </pre>
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Validates that the root element is {@code <entries>}.</li>
+     *     <li>Reads the document as a single stream of tags with an {@link XMLEntryIterator}.</li>
+     *     <li>Dispatches each child of an {@code <entry>} on its tag name and assigns the value to the {@link Entry}.</li>
+     * </ol>
+     * Line breaks and indentation are optional, a whole export may be on one line.
+     *
+     * @param path the path to the XML file to be read
+     * @return a list of {@link Entry} objects populated with data from the XML file
+     * @throws IOException if an I/O error occurs or the file is not a valid XML format
+     * @see Entry
+     * @see #leseXMLStream(String)
+     */
     public List<Entry> leseXML(String path) throws IOException {
-        Path filePath = Path.of(path);
-        List<Entry> entries = new ArrayList<>();
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseXML")) {
+            List<Entry> entries = sammle(leseXMLStream(path));
+            messung.gelesen(path, entries.size());
+            return entries;
+        }
+    }
 
-        try(BufferedReader reader = Files.newBufferedReader(filePath)) {
-            if (!reader.readLine().equals("<entries>")) {
-                throw new IOException("Invalid XML file");
-            }
+    /**
+     * Streaming variant of {@link #leseXML(String)}. Each {@code <entry>} element is read from the file only when
+     * the stream requests the next element.
+     *
+     * @param path the path to the XML file to be read
+     * @return a lazily evaluated stream of {@link Entry} objects, to be closed by the caller
+     * @throws IOException if the file cannot be opened or does not start with {@code <entries>}
+     */
+    public Stream<Entry> leseXMLStream(String path) throws IOException {
+        BufferedReader reader = Compression.leser(Path.of(path));
+        try {
+            return alsStream(new XMLEntryIterator(reader), reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
 
-            String line = reader.readLine();
+    /**
+     * Columnar variant of {@link #leseDatei(String)}: the rows are parsed straight into an {@link EntryTable}
+     * without creating an {@link Entry} per row.
+     *
+     * @param path the path to the file to be read
+     * @return a table holding all rows of the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public EntryTable leseDateiTabelle(String path) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseDateiTabelle")) {
+            EntryTable tabelle = new EntryTable();
+            DelimitedParser.ampersand().parse(Path.of(path), tabelle);
+            messung.gelesen(path, tabelle.size());
+            return tabelle;
+        }
+    }
 
-            while (!line.equals("</entries>")) {
-                Entry entry = new Entry(0,null,null,null,0);
+    /**
+     * Columnar variant of {@link #leseCSV(String)}, see {@link #leseDateiTabelle(String)}.
+     *
+     * @param path the path to the CSV file to be read
+     * @return a table holding all data rows of the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public EntryTable leseCSVTabelle(String path) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseCSVTabelle")) {
+            EntryTable tabelle = new EntryTable();
+            DelimitedParser.csv().parse(Path.of(path), tabelle);
+            messung.gelesen(path, tabelle.size());
+            return tabelle;
+        }
+    }
 
-                if (!line.contains("<entry>")) {
-                    throw new IOException("Invalid XML file");
-                }
+    /**
+     * Columnar variant of {@link #leseTSV(String)}, see {@link #leseDateiTabelle(String)}.
+     *
+     * @param path the path to the TSV file to be read
+     * @return a table holding all data rows of the file
+     * @throws IOException if an I/O error occurs during file reading
+     */
+    public EntryTable leseTSVTabelle(String path) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseTSVTabelle")) {
+            EntryTable tabelle = new EntryTable();
+            DelimitedParser.tsv().parse(Path.of(path), tabelle);
+            messung.gelesen(path, tabelle.size());
+            return tabelle;
+        }
+    }
 
-                String nextLine = reader.readLine();
-                while (!nextLine.contains("</entry>")) {
-                    Matcher idMatcher = ID_PATTERN.matcher(nextLine);
-                    if (idMatcher.matches()) {
-                        entry.setId(Integer.parseInt(idMatcher.group(1)));
-                    }
-
-                    Matcher studentNameMatcher = STUDENTNAME_PATTERN.matcher(nextLine);
-                    if (studentNameMatcher.matches()) {
-                        entry.setStudentName(studentNameMatcher.group(1));
-                    }
-
-                    Matcher hausMatcher = HAUS_PATTERN.matcher(nextLine);
-                    if (hausMatcher.matches()) {
-                        entry.setHaus(Haus.valueOf(hausMatcher.group(1)));
-                    }
-
-                    Matcher lehrerNameMatcher = LEHRERNAME_PATTERN.matcher(nextLine);
-                    if (lehrerNameMatcher.matches()) {
-                        entry.setLehrerName(lehrerNameMatcher.group(1));
-                    }
-
-                    Matcher punkteMatcher = PUNKTE_PATTERN.matcher(nextLine);
-                    if (punkteMatcher.matches()) {
-                        entry.setPunkte(Integer.parseInt(punkteMatcher.group(1)));
-                    }
-
-                    nextLine = reader.readLine();
-                }
+    /**
+     * Columnar variant of {@link #leseJSON(String)}. Each entry from {@link #leseJSONStream(String)} is copied
+     * into the table and can be collected right away.
+     *
+     * @param path the path to the JSON file to be read
+     * @return a table holding all entries of the file
+     * @throws IOException if an I/O error occurs or the file is not a valid JSON format
+     */
+    public EntryTable leseJSONTabelle(String path) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseJSONTabelle")) {
+            EntryTable tabelle = fuelle(leseJSONStream(path));
+            messung.gelesen(path, tabelle.size());
+            return tabelle;
+        }
+    }
 
-                entries.add(entry);
-                line = reader.readLine();
-            }
+    /**
+     * Columnar variant of {@link #leseXML(String)}, see {@link #leseJSONTabelle(String)}.
+     *
+     * @param path the path to the XML file to be read
+     * @return a table holding all entries of the file
+     * @throws IOException if an I/O error occurs or the file is not a valid XML format
+     */
+    public EntryTable leseXMLTabelle(String path) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("leseXMLTabelle")) {
+            EntryTable tabelle = fuelle(leseXMLStream(path));
+            messung.gelesen(path, tabelle.size());
+            return tabelle;
         }
-        return entries;
     }
 
     public void studierendeGrossbuchstaben(char g, List<Entry> entries) {
-        Set<String> studierende = entries.stream().
-                map(entry -> entry.getStudentName()).
-                filter(studentName -> studentName.startsWith(String.valueOf(g))).
-                collect(Collectors.toSet());
+        studierendeGrossbuchstaben(g, entries.stream());
+    }
+
+    /**
+     * Prints the distinct student names starting with {@code g}, consuming the entries in a single pass.
+     * Only the matching names are kept in memory, not the entries themselves.
+     *
+     * @param g       the first letter to filter by
+     * @param entries the entries to scan, e.g. from {@link #leseCSVStream(String)}
+     */
+    public void studierendeGrossbuchstaben(char g, Stream<Entry> entries) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("studierendeGrossbuchstaben")) {
+            String prefix = String.valueOf(g);
+            Set<String> studierende = entries.
+                    map(entry -> entry.getStudentName()).
+                    filter(studentName -> studentName.startsWith(prefix)).
+                    collect(Collectors.toSet());
 
-        for(String studentName : studierende) {
-            System.out.println(studentName);
+            for(String studentName : studierende) {
+                System.out.println(studentName);
+            }
+            messung.zeilen(studierende.size());
+        }
+    }
+
+    /**
+     * Columnar variant of {@link #studierendeGrossbuchstaben(char, List)}. The distinct names are already held
+     * by the table's {@link NameDictionary}, so only the dictionary is scanned, not the rows.
+     *
+     * @param g       the first letter to filter by
+     * @param tabelle the table to query
+     */
+    public void studierendeGrossbuchstaben(char g, EntryTable tabelle) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("studierendeGrossbuchstaben")) {
+            String prefix = String.valueOf(g);
+            NameDictionary namen = tabelle.studentNamen();
+            int treffer = 0;
+
+            for (int code = 0; code < namen.size(); code++) {
+                if (namen.name(code).startsWith(prefix)) {
+                    System.out.println(namen.name(code));
+                    treffer++;
+                }
+            }
+            messung.zeilen(treffer);
+        }
+    }
+
+    /**
+     * Indexed variant of {@link #studierendeGrossbuchstaben(char, List)} for repeated queries against the same data.
+     * The {@link PrefixIndex} is built once after loading, so each query only costs a binary search plus the
+     * matching names. Whether the letter is matched case-insensitively depends on how the index was built.
+     *
+     * Example:
+     * <pre>
+     *     PrefixIndex index = PrefixIndex.studenten(entries, false);
+     *     app.studierendeGrossbuchstaben('H', index);
+     *     app.studierendeGrossbuchstaben('R', index);
+     * </pre>
+     *
+     * @param g     the first letter to filter by
+     * @param index the index over the student names
+     */
+    public void studierendeGrossbuchstaben(char g, PrefixIndex index) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("studierendeGrossbuchstaben")) {
+            List<String> studierende = index.suche(g);
+            for (String studentName : studierende) {
+                System.out.println(studentName);
+            }
+            messung.zeilen(studierende.size());
         }
     }
 
     public void griffindorStudierende(List<Entry> entries) {
-        Set<String> studierende = entries.stream().
-                filter(entry -> entry.getHaus().equals(Haus.valueOf("Gryffindor"))).
-                map(entry -> entry.getStudentName()).
-                collect(Collectors.toSet());
+        griffindorStudierende(entries.stream());
+    }
+
+    /**
+     * Prints the distinct names of all Gryffindor students, consuming the entries in a single pass.
+     *
+     * @param entries the entries to scan, e.g. from {@link #leseCSVStream(String)}
+     */
+    public void griffindorStudierende(Stream<Entry> entries) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("griffindorStudierende")) {
+            Set<String> studierende = entries.
+                    filter(entry -> entry.getHaus() == Haus.Gryffindor).
+                    map(entry -> entry.getStudentName()).
+                    collect(Collectors.toSet());
+
+            for(String studentName : studierende) {
+                System.out.println(studentName);
+            }
+            messung.zeilen(studierende.size());
+        }
+    }
+
+
+    /**
+     * Columnar variant of {@link #griffindorStudierende(List)}. Matching student codes are marked in a
+     * {@link BitSet} while scanning the house column, so each name is printed once.
+     *
+     * @param tabelle the table to query
+     */
+    public void griffindorStudierende(EntryTable tabelle) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("griffindorStudierende")) {
+            BitSet studierende = new BitSet(tabelle.studentNamen().size());
+            int gryffindor = Haus.Gryffindor.ordinal();
+
+            for (int i = 0; i < tabelle.size(); i++) {
+                if (tabelle.hausOrdinal(i) == gryffindor && tabelle.studentCode(i) != NameDictionary.KEIN_NAME) {
+                    studierende.set(tabelle.studentCode(i));
+                }
+            }
+
+            for (int code = studierende.nextSetBit(0); code >= 0; code = studierende.nextSetBit(code + 1)) {
+                System.out.println(tabelle.studentNamen().name(code));
+            }
+            messung.zeilen(studierende.cardinality());
+        }
+    }
+
+    /**
+     * Indexed variant of {@link #griffindorStudierende(List)}, see {@link #studierendeNachHaus(Haus, HausIndex)}.
+     *
+     * @param index the index over the loaded entries
+     */
+    public void griffindorStudierende(HausIndex index) {
+        studierendeNachHaus(Haus.Gryffindor, index);
+    }
 
-        for(String studentName : studierende) {
-            System.out.println(studentName);
+    /**
+     * Prints the distinct names of all students of a house. The names are read from the {@link HausIndex}
+     * built while loading, so the cost depends on the number of students printed, not on the number of entries.
+     *
+     * Example:
+     * <pre>
+     *     HausIndex index = HausIndex.von(entries);
+     *     app.studierendeNachHaus(Haus.Ravenclaw, index);
+     * </pre>
+     *
+     * @param haus  the house to list
+     * @param index the index over the loaded entries
+     */
+    public void studierendeNachHaus(Haus haus, HausIndex index) {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("studierendeNachHaus")) {
+            Set<String> studierende = index.studierende(haus);
+            for (String studentName : studierende) {
+                System.out.println(studentName);
+            }
+            messung.zeilen(studierende.size());
         }
     }
 
@@ -544,9 +793,8 @@ public class HogwartsApp {
      *
      * Method Logic:
      * <ol>
-     *     <li>Initializes a map to calculate total points for each house, setting initial points to zero.</li>
-     *     <li>Iterates through the provided {@link Entry} list, adding points to the corresponding house in the map.</li>
-     *     <li>Sorts the map entries by points in descending order.</li>
+     *     <li>Sums the points of the provided {@link Entry} list per house with a {@link HausAggregator}.</li>
+     *     <li>Orders the houses by total points in descending order.</li>
      *     <li>Writes the sorted results to a file, with each line containing a house name and its total points, separated by {@code #}.</li>
      * </ol>
      *
@@ -557,29 +805,67 @@ public class HogwartsApp {
      * @see Haus
      */
     public void schreibeDatei(String path, List<Entry> entries) throws IOException {
-        Path filePath = Path.of(path);
-        Map<Haus, Integer> hausPunkte = new HashMap<>();
-
-        for(Haus haus: Haus.values()) {
-            hausPunkte.put(haus, 0);
-        }
+        schreibeDatei(path, entries.stream());
+    }
 
-        for(Entry entry : entries) {
-            hausPunkte.put(entry.getHaus(), hausPunkte.get(entry.getHaus()) + entry.getPunkte());
-        }
+    /**
+     * Single-pass variant of {@link #schreibeDatei(String, List)}. The entries are folded into the house totals
+     * as they are produced, so a stream from {@link #leseCSVStream(String)} never materializes the dataset.
+     *
+     * @param path    the path to the file where the results will be written
+     * @param entries the entries to aggregate; the stream is consumed but not closed
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeDatei(String path, Stream<Entry> entries) throws IOException {
+        schreibeDatei(path, HausAggregator.von(entries));
+    }
 
-        List<Map.Entry<Haus, Integer>> sortiert = hausPunkte.entrySet().
-                stream().
-                sorted((a,b) -> a.getValue() > b.getValue() ? -1 : 1).
-                collect(Collectors.toList());
+    /**
+     * Columnar variant of {@link #schreibeDatei(String, List)} that sums the {@code haus} and {@code punkte}
+     * columns of the table.
+     *
+     * @param path    the path to the file where the results will be written
+     * @param tabelle the table containing the data to be processed
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeDatei(String path, EntryTable tabelle) throws IOException {
+        schreibeDatei(path, HausAggregator.von(tabelle));
+    }
 
-        try(FileWriter writer = new FileWriter(filePath.toFile())) {
-            for(Map.Entry<Haus, Integer> entry: sortiert) {
-                writer.write(entry.getKey() + "#" + entry.getValue() + "\n");
-            }
+    /**
+     * Writes already aggregated house totals in the format of {@link #schreibeDatei(String, List)}, for example
+     * the result of {@link HausAggregator#parallel(List, int)}.
+     *
+     * @param path   the path to the file where the results will be written
+     * @param punkte the house totals to write
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeDatei(String path, HausAggregator punkte) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeDatei")) {
+            resultWriter.schreibe(Path.of(path), hausSummen(punkte, '#', null));
+            messung.zeilen(Haus.values().length);
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #schreibeDatei(String, HausAggregator)}. The totals are copied first, so
+     * {@code punkte} may keep changing while the file is written on the background thread of the {@link ResultWriter}.
+     *
+     * Example:
+     * <pre>
+     *     CompletableFuture&lt;Path&gt; geschrieben = app.schreibeDateiAsync("ergebnis.txt", punkte);
+     *     // ... continue processing ...
+     *     geschrieben.join();
+     * </pre>
+     *
+     * @param path   the path to the file where the results will be written
+     * @param punkte the house totals to write
+     * @return a future completing with the written path, or exceptionally with the {@link IOException} of the write
+     */
+    public CompletableFuture<Path> schreibeDateiAsync(String path, HausAggregator punkte) {
+        return resultWriter.schreibeAsync(Path.of(path), hausSummen(new HausAggregator().merge(punkte), '#', null));
+    }
+
     //todo save in .csv
     /**
      * Writes the total points for each Hogwarts house to a CSV file.
@@ -596,9 +882,8 @@ public class HogwartsApp {
      *
      * Method Logic:
      * <ol>
-     *     <li>Initializes a map to calculate total points for each house.</li>
-     *     <li>Iterates through the list of {@link Entry} objects to update house points.</li>
-     *     <li>Sorts the map entries by points in descending order.</li>
+     *     <li>Sums the points of the list of {@link Entry} objects per house with a {@link HausAggregator}.</li>
+     *     <li>Orders the houses by total points in descending order.</li>
      *     <li>Writes the sorted data to a CSV file with a header row.</li>
      * </ol>
      *
@@ -608,34 +893,350 @@ public class HogwartsApp {
      * @see Entry
      */
     public void schreibeCSV(String path, List<Entry> entries) throws IOException {
-        Path filePath = Path.of(path);
-        Map<Haus, Integer> hausPunkte = new HashMap<>();
+        schreibeCSV(path, entries.stream());
+    }
+
+    /**
+     * Single-pass variant of {@link #schreibeCSV(String, List)}, see {@link #schreibeDatei(String, Stream)}.
+     *
+     * @param path    the path to the CSV file to be written
+     * @param entries the entries to aggregate; the stream is consumed but not closed
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeCSV(String path, Stream<Entry> entries) throws IOException {
+        schreibeCSV(path, HausAggregator.von(entries));
+    }
+
+    /**
+     * Columnar variant of {@link #schreibeCSV(String, List)}, see {@link #schreibeDatei(String, EntryTable)}.
+     *
+     * @param path    the path to the CSV file to be written
+     * @param tabelle the table containing the data to be processed
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeCSV(String path, EntryTable tabelle) throws IOException {
+        schreibeCSV(path, HausAggregator.von(tabelle));
+    }
+
+    /**
+     * Writes already aggregated house totals in the format of {@link #schreibeCSV(String, List)}.
+     *
+     * @param path   the path to the CSV file to be written
+     * @param punkte the house totals to write
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeCSV(String path, HausAggregator punkte) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeCSV")) {
+            resultWriter.schreibe(Path.of(path), hausSummen(punkte, ',', "Haus,Punkte"));
+            messung.zeilen(Haus.values().length);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #schreibeCSV(String, HausAggregator)}, see {@link #schreibeDateiAsync(String, HausAggregator)}.
+     *
+     * @param path   the path to the CSV file to be written
+     * @param punkte the house totals to write
+     * @return a future completing with the written path, or exceptionally with the {@link IOException} of the write
+     */
+    public CompletableFuture<Path> schreibeCSVAsync(String path, HausAggregator punkte) {
+        return resultWriter.schreibeAsync(Path.of(path), hausSummen(new HausAggregator().merge(punkte), ',', "Haus,Punkte"));
+    }
+
+    /**
+     * Writes a leaderboard in the format of {@link #schreibeDatei(String, List)}, one place per line, best first.
+     *
+     * Example output:
+     * <pre>
+     *     Hermione Granger#45
+     *     Harry Potter#30
+     * </pre>
+     *
+     * Example:
+     * <pre>
+     *     Leaderboard rangliste = Leaderboard.von(entries);
+     *     app.schreibeRangliste("top-studenten.txt", rangliste.topStudenten(10));
+     * </pre>
+     *
+     * @param path    the path to the output file to be written
+     * @param plaetze the places to write, e.g. from {@link Leaderboard#topStudenten(int)}
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeRangliste(String path, List<Leaderboard.Platz> plaetze) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeRangliste")) {
+            resultWriter.schreibe(Path.of(path), zeilen -> {
+                for (Leaderboard.Platz platz : plaetze) {
+                    zeilen.text(platz.getName()).zeichen('#').zahl(platz.getPunkte()).zeilenende();
+                }
+            });
+            messung.zeilen(plaetze.size());
+        }
+    }
+
+    /**
+     * Writes a leaderboard in the format of {@link #schreibeCSV(String, List)}, with a "Name,Punkte" header.
+     * Names containing a comma or a quote are enclosed in quotes.
+     *
+     * @param path    the path to the CSV file to be written
+     * @param plaetze the places to write, e.g. from {@link Leaderboard#topLehrer(int)}
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeRanglisteCSV(String path, List<Leaderboard.Platz> plaetze) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeRanglisteCSV")) {
+            resultWriter.schreibe(Path.of(path), zeilen -> {
+                zeilen.text("Name,Punkte").zeilenende();
+                for (Leaderboard.Platz platz : plaetze) {
+                    zeilen.text(csvName(platz.getName())).zeichen(',').zahl(platz.getPunkte()).zeilenende();
+                }
+            });
+            messung.zeilen(plaetze.size());
+        }
+    }
+
+    /**
+     * Writes the per-student or per-teacher totals of an out-of-core aggregation in the format of
+     * {@link #schreibeRanglisteCSV(String, List)}, every name best first. The totals are merged from the spill files
+     * of the aggregator while the file is written, so the whole result never has to be in memory.
+     *
+     * Example:
+     * <pre>
+     *     try (SpillingAggregator summen = new SpillingAggregator(SpillingAggregator.Spalte.LEHRER, 256L &lt;&lt; 20)) {
+     *         DelimitedParser.csv().parse(Path.of("archiv.csv"), summen);
+     *         app.schreibeCSV("lehrer.csv", summen);
+     *     }
+     * </pre>
+     *
+     * @param path   the path to the CSV file to be written
+     * @param summen the totals to write; they are consumed by the write
+     * @throws IOException if an I/O error occurs during file writing or while merging the spill files
+     */
+    public void schreibeCSV(String path, SpillingAggregator summen) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeCSV")) {
+            long[] anzahl = new long[1];
+            resultWriter.schreibe(Path.of(path), zeilen -> {
+                zeilen.text("Name,Punkte").zeilenende();
+                summen.rangfolge((name, punkte) -> {
+                    zeilen.text(csvName(name)).zeichen(',').zahl(punkte).zeilenende();
+                    anzahl[0]++;
+                });
+            });
+            messung.zeilen(anzahl[0]);
+        }
+    }
 
-        // Initialize points for each house
-        for (Haus haus : Haus.values()) {
-            hausPunkte.put(haus, 0);
+    /** Encloses a name containing a comma or a quote in quotes. */
+    private static String csvName(String name) {
+        if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0) {
+            return "\"" + name.replace("\"", "\"\"") + "\"";
         }
+        return name;
+    }
 
-        // Aggregate points for each house
+    /**
+     * Incremental variant of {@link #schreibeDatei(String, List)} for input files that only grow by appending.
+     * The byte offset reached and the house totals are kept in a {@link StandingsCheckpoint}, so each call only
+     * parses the rows appended since the previous call and then rewrites the result file.
+     *
+     * Example:
+     * <pre>
+     *     app.schreibeDateiInkrementell("punkte.csv", DelimitedParser.csv(), "ergebnis.checkpoint", "ergebnis.txt");
+     * </pre>
+     *
+     * @param path           the path to the input file
+     * @param parser         the parser matching the input format, e.g. {@link DelimitedParser#csv()}
+     * @param checkpointPath the path to the checkpoint file, created on the first call
+     * @param outputPath     the path to the file where the results will be written
+     * @throws IOException if an I/O error occurs during reading or writing
+     */
+    public void schreibeDateiInkrementell(String path, DelimitedParser parser, String checkpointPath, String outputPath) throws IOException {
+        HausAggregator punkte = StandingsCheckpoint.aktualisiere(Path.of(path), parser, Path.of(checkpointPath));
+        schreibeDatei(outputPath, punkte);
+    }
+
+    /**
+     * Stores the table as a binary {@link EntrySnapshot}, which {@link #leseSnapshot(String)} opens without parsing
+     * any text. Use it next to {@link #schreibeDatei(String, List)} and {@link #schreibeCSV(String, List)} to keep
+     * the parsed input for the next run.
+     *
+     * @param path    the path to the snapshot file to be written
+     * @param tabelle the rows to store
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeSnapshot(String path, EntryTable tabelle) throws IOException {
+        try (HogwartsMetrics.Messung messung = HogwartsMetrics.starte("schreibeSnapshot")) {
+            EntrySnapshot.schreibe(Path.of(path), tabelle);
+            messung.zeilen(tabelle.size());
+        }
+    }
+
+    /**
+     * Stores the entries as a binary {@link EntrySnapshot}, see {@link #schreibeSnapshot(String, EntryTable)}.
+     *
+     * @param path    the path to the snapshot file to be written
+     * @param entries the entries to store
+     * @throws IOException if an I/O error occurs during file writing
+     */
+    public void schreibeSnapshot(String path, List<Entry> entries) throws IOException {
+        EntryTable tabelle = new EntryTable(entries.size());
         for (Entry entry : entries) {
-            hausPunkte.put(entry.getHaus(), hausPunkte.get(entry.getHaus()) + entry.getPunkte());
+            tabelle.add(entry);
+        }
+        schreibeSnapshot(path, tabelle);
+    }
+
+    /**
+     * Opens a snapshot written by {@link #schreibeSnapshot(String, EntryTable)}. The records are memory-mapped and
+     * decoded on access, so the call returns after reading the name dictionaries.
+     *
+     * @param path the path to the snapshot file
+     * @return a read-only view of the stored rows
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public EntrySnapshot leseSnapshot(String path) throws IOException {
+        return EntrySnapshot.oeffne(Path.of(path));
+    }
+
+    private Stream<Entry> leseMitKopfzeile(String path, String delimiter) throws IOException {
+        BufferedReader reader = Compression.leser(Path.of(path));
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Missing header row in " + path);
+            }
+            String[] fields = header.split(delimiter);
+
+            return reader.lines()
+                    .map(line -> parseZeile(fields, line.split(delimiter, -1)))
+                    .onClose(() -> schliesse(reader));
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private static Entry parseDateiZeile(String line) {
+        String[] fields = line.split("&", -1);
+        if (fields.length < 5) {
+            throw new IllegalArgumentException("Expected 5 columns but found " + fields.length + ": " + line);
+        }
+        NameInterner namen = NameInterner.gemeinsam();
+        LocalDateTime zeitpunkt = fields.length > 5 ? Timestamps.zeitpunkt(Timestamps.parse(fields[5])) : null;
+        return new Entry(Integer.parseInt(fields[0]), namen.intern(fields[1]), Haus.valueOf(fields[2]), namen.intern(fields[3]), Integer.parseInt(fields[4]), zeitpunkt);
+    }
+
+    private static Entry parseZeile(String[] fields, String[] values) {
+        if (values.length < fields.length) {
+            throw new IllegalArgumentException("Expected " + fields.length + " columns but found " + values.length);
         }
+        Entry entry = new Entry(0,null,null,null,0);
 
-        // Sort the houses by total points in descending order
-        List<Map.Entry<Haus, Integer>> sortedEntries = hausPunkte.entrySet()
-                .stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .collect(Collectors.toList());
+        for(int i = 0; i < fields.length; i++) {
+            String value = values[i].replace("\"", "");
+            switch (fields[i]) {
+                case "id": {
+                    entry.setId(Integer.parseInt(value));
+                    break;
+                }
+                case "studentName": {
+                    entry.setStudentName(NameInterner.gemeinsam().intern(value));
+                    break;
+                }
+                case "haus": {
+                    entry.setHaus(Haus.valueOf(value));
+                    break;
+                }
+                case "lehrerName": {
+                    entry.setLehrerName(NameInterner.gemeinsam().intern(value));
+                    break;
+                }
+                case "punkte": {
+                    entry.setPunkte(Integer.parseInt(value));
+                    break;
+                }
+                case "zeitpunkt": {
+                    entry.setZeitpunkt(Timestamps.zeitpunkt(Timestamps.parse(value)));
+                    break;
+                }
+            }
+        }
+        return entry;
+    }
 
-        // Write the sorted data to a CSV file
-        try (FileWriter writer = new FileWriter(filePath.toFile())) {
-            // Write the header row
-            writer.write("Haus,Punkte\n");
+    private static Stream<Entry> alsStream(Iterator<Entry> iterator, Closeable reader) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> schliesse(reader));
+    }
 
-            // Write each house and its total points
-            for (Map.Entry<Haus, Integer> entry : sortedEntries) {
-                writer.write(entry.getKey() + "," + entry.getValue() + "\n");
+    private static ResultWriter.Inhalt hausSummen(HausAggregator punkte, char trenner, String kopfzeile) {
+        return zeilen -> {
+            if (kopfzeile != null) {
+                zeilen.text(kopfzeile).zeilenende();
+            }
+            // The houses, sorted by total points in descending order
+            for (Haus haus : punkte.rangfolge()) {
+                zeilen.text(haus.name()).zeichen(trenner).zahl(punkte.summe(haus)).zeilenende();
             }
+        };
+    }
+
+    private static EntrySink sammleIn(List<Entry> entries) {
+        return EntrySink.in(entries);
+    }
+
+    private static EntryTable fuelle(Stream<Entry> stream) throws IOException {
+        EntryTable tabelle = new EntryTable();
+        try (stream) {
+            stream.forEach(tabelle::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return tabelle;
+    }
+
+    private static List<Entry> verbinde(List<Teilliste> teile) {
+        int groesse = 0;
+        for (Teilliste teil : teile) {
+            groesse += teil.entries.size();
+        }
+
+        List<Entry> entries = new ArrayList<>(groesse);
+        for (Teilliste teil : teile) {
+            entries.addAll(teil.entries);
+        }
+        return entries;
+    }
+
+    private static List<Entry> sammle(Stream<Entry> stream) throws IOException {
+        try (stream) {
+            return stream.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void schliesse(Closeable reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects the entries of one byte range parsed by {@link DelimitedParser#parseParallel}.
+     */
+    private static final class Teilliste implements EntrySink {
+        private final List<Entry> entries = new ArrayList<>();
+        private final EntrySink sammler = EntrySink.in(entries);
+
+        @Override
+        public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+            sammler.accept(id, studentName, haus, lehrerName, punkte);
+        }
+
+        @Override
+        public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+            sammler.accept(id, studentName, haus, lehrerName, punkte, zeitpunkt);
         }
     }
 
@@ -0,0 +1,402 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams {@link Entry} objects from JSON with an incremental tokenizer, so only the object currently being read
+ * is held in memory. Two layouts are accepted:
+ * <ul>
+ *     <li>a JSON array of objects, formatted in any way, including a minified single line</li>
+ *     <li>JSON Lines (NDJSON), i.e. one object after another, typically one per line of an append-only log</li>
+ * </ul>
+ *
+ * Example Input:
+ * <pre>
+ * [{"id":1,"studentName":"Harry Potter","haus":"Gryffindor","lehrerName":"Remus Lupin","punkte":10},{"id":2,...}]
+ *
+ * {"id":1,"studentName":"Harry Potter","haus":"Gryffindor","lehrerName":"Remus Lupin","punkte":10}
+ * {"id":2,"studentName":"Ron Weasley","haus":"Gryffindor","lehrerName":"Remus Lupin","punkte":5}
+ * </pre>
+ * <p>
+ * Fields may appear in any order; unknown fields are skipped, whatever their value. {@code id} and {@code punkte}
+ * may also be given as strings and a {@code null} value leaves the field unset. Strings are decoded including all
+ * escape sequences. An optional {@code zeitpunkt} field holds the time of the award as a string such as
+ * {@code "2024-09-02T10:15"}, see {@link Timestamps}. I/O and syntax errors that occur while iterating are thrown as
+ * {@link UncheckedIOException}.
+ * <p>
+ * Each object is read completely before {@link #hasNext()} returns, so a lenient iterator created with a
+ * {@link Quarantine} can skip an object with an invalid {@code id}, {@code punkte} or {@code haus}, as well as an
+ * object cut off by the end of the file.
+ */
+public final class JSONEntryIterator extends CharBufferScanner implements Iterator<Entry> {
+    private static final int UNBEKANNT = -1;
+    private static final int ID = 0;
+    private static final int STUDENT_NAME = 1;
+    private static final int HAUS = 2;
+    private static final int LEHRER_NAME = 3;
+    private static final int PUNKTE = 4;
+    private static final int ZEITPUNKT = 5;
+    private static final String[] FELDER = {"id", "studentName", "haus", "lehrerName", "punkte", "zeitpunkt"};
+
+    private final boolean array;
+    private boolean erstes = true;
+    private boolean ende;
+    private Entry naechster;
+
+    /**
+     * Reads up to the first value and decides between array and JSON Lines input.
+     *
+     * @param reader the document source; it is not closed by this iterator
+     * @throws IOException if the input cannot be read or starts with neither {@code [} nor <code>{</code>
+     */
+    public JSONEntryIterator(Reader reader) throws IOException {
+        this(reader, null, null);
+    }
+
+    /**
+     * Lenient variant of {@link #JSONEntryIterator(Reader)}: objects with invalid values and an object cut off by
+     * the end of the input are reported to {@code quarantine} and skipped.
+     *
+     * @param reader     the document source; it is not closed by this iterator
+     * @param datei      the file being read, reported to the quarantine
+     * @param quarantine receives the skipped objects, or {@code null} to fail on the first invalid value
+     * @throws IOException if the input cannot be read or starts with neither {@code [} nor <code>{</code>
+     */
+    public JSONEntryIterator(Reader reader, Path datei, Quarantine quarantine) throws IOException {
+        super(reader, "JSON", datei, quarantine);
+        int c = naechstesZeichen();
+        if (c == '[') {
+            array = true;
+        } else if (c == '{' || c < 0) {
+            array = false;
+            ende = c < 0;
+            if (c == '{') {
+                pos--;
+            }
+        } else {
+            throw fehler("expected '[' or '{' but found '" + (char) c + "'");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (naechster == null && !ende) {
+                long anfang = basis + pos;
+                Entry entry;
+                try {
+                    if (!naechstesObjekt()) {
+                        continue;
+                    }
+                    anfang = basis + pos - 1;
+                    entry = leseObjekt();
+                } catch (IOException e) {
+                    if (!abgeschnitten(anfang, e)) {
+                        throw e;
+                    }
+                    ende = true;
+                    continue;
+                }
+                if (!quarantaeniert(anfang)) {
+                    naechster = entry;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return naechster != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = naechster;
+        naechster = null;
+        return entry;
+    }
+
+    /**
+     * Moves to the opening brace of the next object.
+     *
+     * @return {@code false} at the end of the array or the input
+     */
+    private boolean naechstesObjekt() throws IOException {
+        int c = naechstesZeichen();
+        if (array) {
+            if (c == ']') {
+                ende = true;
+                if (naechstesZeichen() >= 0) {
+                    throw fehler("unexpected content after ']'");
+                }
+                return false;
+            }
+            if (!erstes) {
+                if (c != ',') {
+                    throw fehler("expected ',' or ']'");
+                }
+                c = naechstesZeichen();
+            }
+        }
+        if (c < 0) {
+            if (array) {
+                throw fehler("unexpected end of file, expected ']'");
+            }
+            ende = true;
+            return false;
+        }
+        if (c != '{') {
+            throw fehler("expected '{'");
+        }
+        erstes = false;
+        return true;
+    }
+
+    /**
+     * Reads the fields of an object after its opening brace, up to and including the closing brace.
+     */
+    private Entry leseObjekt() throws IOException {
+        Entry entry = new Entry(0,null,null,null,0);
+        int c = naechstesZeichen();
+        if (c == '}') {
+            return entry;
+        }
+
+        while (true) {
+            if (c != '"') {
+                throw fehler("expected a field name");
+            }
+            int feld = leseFeldname();
+            if (naechstesZeichen() != ':') {
+                throw fehler("expected ':'");
+            }
+
+            c = naechstesZeichen();
+            if (c == 'n' && folgt("ull")) {
+                // null leaves the field unset
+            } else if (feld == UNBEKANNT) {
+                ueberspringeWert(c);
+            } else {
+                leseSkalar(c);
+                switch (feld) {
+                    case ID: {
+                        entry.setId(wertAlsInt());
+                        break;
+                    }
+                    case STUDENT_NAME: {
+                        entry.setStudentName(wertAlsString());
+                        break;
+                    }
+                    case HAUS: {
+                        entry.setHaus(wertAlsHaus());
+                        break;
+                    }
+                    case LEHRER_NAME: {
+                        entry.setLehrerName(wertAlsString());
+                        break;
+                    }
+                    case PUNKTE: {
+                        entry.setPunkte(wertAlsInt());
+                        break;
+                    }
+                    case ZEITPUNKT: {
+                        entry.setZeitpunkt(wertAlsZeitpunkt());
+                        break;
+                    }
+                }
+            }
+            marke = -1;
+
+            c = naechstesZeichen();
+            if (c == '}') {
+                return entry;
+            }
+            if (c != ',') {
+                throw fehler("expected ',' or '}'");
+            }
+            c = naechstesZeichen();
+        }
+    }
+
+    /**
+     * @return the next character that is not JSON whitespace, or {@code -1} at the end of the input
+     */
+    private int naechstesZeichen() throws IOException {
+        while (true) {
+            int i = pos;
+            while (i < limit && buf[i] <= ' ' && (buf[i] == ' ' || buf[i] == '\n' || buf[i] == '\r' || buf[i] == '\t')) {
+                i++;
+            }
+            pos = i;
+            if (i < limit) {
+                return buf[pos++];
+            }
+            if (!fuelle(1)) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Reads a field name after its opening quote and matches it against the known fields.
+     */
+    private int leseFeldname() throws IOException {
+        leseString();
+        int laenge = wertEnde - wertStart;
+        int feld;
+        // the known field names all differ in length
+        switch (laenge) {
+            case 2: feld = ID; break;
+            case 11: feld = STUDENT_NAME; break;
+            case 4: feld = HAUS; break;
+            case 10: feld = LEHRER_NAME; break;
+            case 6: feld = PUNKTE; break;
+            case 9: feld = ZEITPUNKT; break;
+            default: feld = UNBEKANNT;
+        }
+        boolean gleich = feld != UNBEKANNT && gleich(FELDER[feld], wert, wertStart);
+        // release the mark in every case, or the buffer would keep the whole value that is skipped next
+        marke = -1;
+        return gleich ? feld : UNBEKANNT;
+    }
+
+    /**
+     * Reads a string, number or boolean starting with {@code c} into the current value.
+     */
+    private void leseSkalar(int c) throws IOException {
+        if (c == '"') {
+            leseString();
+            return;
+        }
+        if (c != '-' && (c < '0' || c > '9') && c != 't' && c != 'f') {
+            throw fehler(c < 0 ? "unexpected end of file" : "unexpected '" + (char) c + "'");
+        }
+
+        marke = pos - 1;
+        while (true) {
+            int i = pos;
+            while (i < limit && istLiteralZeichen(buf[i])) {
+                i++;
+            }
+            pos = i;
+            if (i < limit || !fuelle(1)) {
+                break;
+            }
+        }
+        wert = buf;
+        wertStart = marke;
+        wertEnde = pos;
+    }
+
+    /**
+     * Reads a string after its opening quote. Strings without escapes stay in the buffer, the others are decoded
+     * into {@link #text}.
+     */
+    private void leseString() throws IOException {
+        marke = pos;
+        while (true) {
+            int i = pos;
+            while (i < limit && buf[i] != '"' && buf[i] != '\\') {
+                i++;
+            }
+            pos = i;
+            if (i < limit) {
+                break;
+            }
+            if (!fuelle(1)) {
+                throw fehler("unterminated string");
+            }
+        }
+
+        if (buf[pos] == '"') {
+            wert = buf;
+            wertStart = marke;
+            wertEnde = pos;
+            pos++;
+            return;
+        }
+
+        text.setLength(0);
+        text.append(buf, marke, pos - marke);
+        marke = -1;
+        int c;
+        while ((c = lese()) != '"') {
+            if (c < 0) {
+                throw fehler("unterminated string");
+            }
+            if (c == '\\') {
+                leseEscape();
+            } else {
+                text.append((char) c);
+            }
+        }
+        wertAusText();
+    }
+
+    private void leseEscape() throws IOException {
+        int c = lese();
+        switch (c) {
+            case '"': text.append('"'); break;
+            case '\\': text.append('\\'); break;
+            case '/': text.append('/'); break;
+            case 'b': text.append('\b'); break;
+            case 'f': text.append('\f'); break;
+            case 'n': text.append('\n'); break;
+            case 'r': text.append('\r'); break;
+            case 't': text.append('\t'); break;
+            case 'u': {
+                int zeichen = 0;
+                for (int i = 0; i < 4; i++) {
+                    int ziffer = Character.digit(lese(), 16);
+                    if (ziffer < 0) {
+                        throw fehler("invalid \\u escape");
+                    }
+                    zeichen = zeichen * 16 + ziffer;
+                }
+                text.append((char) zeichen);
+                break;
+            }
+            default: throw fehler("invalid escape sequence");
+        }
+    }
+
+    /**
+     * Skips a complete value starting with {@code c}, including nested objects and arrays.
+     */
+    private void ueberspringeWert(int c) throws IOException {
+        if (c == '{' || c == '[') {
+            int tiefe = 1;
+            while (tiefe > 0) {
+                c = lese();
+                if (c < 0) {
+                    throw fehler("unexpected end of file");
+                }
+                if (c == '"') {
+                    leseString();
+                    marke = -1;
+                } else if (c == '{' || c == '[') {
+                    tiefe++;
+                } else if (c == '}' || c == ']') {
+                    tiefe--;
+                }
+            }
+        } else {
+            if (c == 'n') {
+                pos--;
+                if (!folgt("null")) {
+                    throw fehler("unexpected 'n'");
+                }
+                return;
+            }
+            leseSkalar(c);
+        }
+    }
+
+    private static boolean istLiteralZeichen(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+}
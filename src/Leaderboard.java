@@ -0,0 +1,227 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-student and per-teacher point totals with top-K queries. All totals are collected in one pass: names are
+ * encoded by a {@link NameDictionary}, whose dense codes index plain {@code long[]} columns, so adding a row
+ * costs one dictionary lookup per name and no boxing. A top-K query keeps only the best {@code k} codes in a
+ * bounded min-heap of ints, so it needs {@code O(n log k)} time and {@code O(k)} memory instead of a full sort.
+ *
+ * Students are counted overall and per house; teachers are counted by the points they awarded.
+ * Ties are ranked by the order in which the names were first seen.
+ *
+ * Example:
+ * <pre>
+ *     Leaderboard rangliste = Leaderboard.von(entries);
+ *     rangliste.topStudenten(10);                    // the ten students with the most points
+ *     rangliste.topStudenten(Haus.Ravenclaw, 3);     // the best three Ravenclaws
+ *     rangliste.topLehrer(5);                        // the five most generous teachers
+ * </pre>
+ */
+public final class Leaderboard implements EntrySink {
+    private static final int HAEUSER = Haus.values().length;
+
+    private final NameDictionary studenten = new NameDictionary();
+    private final NameDictionary lehrer = new NameDictionary();
+    private long[] studentSummen = new long[16];
+    private long[] studentHausSummen = new long[16 * HAEUSER];
+    private boolean[] studentImHaus = new boolean[16 * HAEUSER];
+    private long[] lehrerSummen = new long[16];
+
+    /**
+     * @param entries the entries to rank
+     * @return a new leaderboard over the entries
+     */
+    public static Leaderboard von(List<Entry> entries) {
+        Leaderboard rangliste = new Leaderboard();
+        for (Entry entry : entries) {
+            rangliste.add(entry);
+        }
+        return rangliste;
+    }
+
+    /**
+     * @param tabelle the table to rank
+     * @return a new leaderboard over the rows of the table
+     */
+    public static Leaderboard von(EntryTable tabelle) {
+        Leaderboard rangliste = new Leaderboard();
+        for (int i = 0; i < tabelle.size(); i++) {
+            rangliste.accept(tabelle.id(i), tabelle.studentName(i), tabelle.haus(i), tabelle.lehrerName(i), tabelle.punkte(i));
+        }
+        return rangliste;
+    }
+
+    /**
+     * @param entry the entry to count
+     */
+    public void add(Entry entry) {
+        accept(entry.getId(), entry.getStudentName(), entry.getHaus(), entry.getLehrerName(), entry.getPunkte());
+    }
+
+    /**
+     * Adds the points of one row to its student and its teacher. Missing names are not ranked.
+     */
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        if (studentName != null) {
+            int code = studenten.code(studentName);
+            if (code == studentSummen.length) {
+                studentSummen = Arrays.copyOf(studentSummen, code * 2);
+                studentHausSummen = Arrays.copyOf(studentHausSummen, code * 2 * HAEUSER);
+                studentImHaus = Arrays.copyOf(studentImHaus, code * 2 * HAEUSER);
+            }
+            studentSummen[code] += punkte;
+            if (haus != null) {
+                studentHausSummen[code * HAEUSER + haus.ordinal()] += punkte;
+                studentImHaus[code * HAEUSER + haus.ordinal()] = true;
+            }
+        }
+        if (lehrerName != null) {
+            int code = lehrer.code(lehrerName);
+            if (code == lehrerSummen.length) {
+                lehrerSummen = Arrays.copyOf(lehrerSummen, code * 2);
+            }
+            lehrerSummen[code] += punkte;
+        }
+    }
+
+    /**
+     * @param k the maximum number of places
+     * @return the {@code k} students with the highest total points, best first
+     */
+    public List<Platz> topStudenten(int k) {
+        return top(studenten, studentSummen, 0, 1, null, k);
+    }
+
+    /**
+     * Ranks students by the points they earned for one house. Students without an entry for the house are left out.
+     *
+     * @param haus the house to rank
+     * @param k    the maximum number of places
+     * @return the {@code k} students with the highest points for {@code haus}, best first
+     */
+    public List<Platz> topStudenten(Haus haus, int k) {
+        return top(studenten, studentHausSummen, haus.ordinal(), HAEUSER, studentImHaus, k);
+    }
+
+    /**
+     * @param k the maximum number of places
+     * @return the {@code k} teachers who awarded the most points, best first
+     */
+    public List<Platz> topLehrer(int k) {
+        return top(lehrer, lehrerSummen, 0, 1, null, k);
+    }
+
+    /**
+     * Selects the best {@code k} codes of one column.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Fill a min-heap of codes until it holds {@code k} of them; its root is the weakest place so far.</li>
+     *     <li>Every further code that beats the root replaces it and is sifted down.</li>
+     *     <li>Sort the remaining {@code k} codes best first and resolve their names.</li>
+     * </ol>
+     * The sum of code {@code c} is {@code summen[c * schritt + versatz]}; {@code vorhanden}, if given, marks which
+     * of those sums exist.
+     */
+    private static List<Platz> top(NameDictionary namen, long[] summen, int versatz, int schritt, boolean[] vorhanden, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        int[] heap = new int[Math.min(k, namen.size())];
+        int groesse = 0;
+
+        for (int code = 0; code < namen.size() && heap.length > 0; code++) {
+            int index = code * schritt + versatz;
+            if (vorhanden != null && !vorhanden[index]) {
+                continue;
+            }
+            if (groesse < heap.length) {
+                heap[groesse] = code;
+                hebe(heap, groesse++, summen, versatz, schritt);
+            } else if (besser(code, heap[0], summen, versatz, schritt)) {
+                heap[0] = code;
+                senke(heap, groesse, summen, versatz, schritt);
+            }
+        }
+
+        // Pop the weakest place repeatedly, filling the result from the back
+        Platz[] plaetze = new Platz[groesse];
+        while (groesse > 0) {
+            int code = heap[0];
+            heap[0] = heap[--groesse];
+            senke(heap, groesse, summen, versatz, schritt);
+            plaetze[groesse] = new Platz(namen.name(code), summen[code * schritt + versatz]);
+        }
+        return new ArrayList<>(Arrays.asList(plaetze));
+    }
+
+    /** Whether {@code a} ranks above {@code b}: more points, or equal points and seen first. */
+    private static boolean besser(int a, int b, long[] summen, int versatz, int schritt) {
+        long summeA = summen[a * schritt + versatz];
+        long summeB = summen[b * schritt + versatz];
+        return summeA > summeB || (summeA == summeB && a < b);
+    }
+
+    private static void hebe(int[] heap, int i, long[] summen, int versatz, int schritt) {
+        while (i > 0) {
+            int eltern = (i - 1) >>> 1;
+            if (!besser(heap[eltern], heap[i], summen, versatz, schritt)) {
+                return;
+            }
+            tausche(heap, i, eltern);
+            i = eltern;
+        }
+    }
+
+    private static void senke(int[] heap, int groesse, long[] summen, int versatz, int schritt) {
+        int i = 0;
+        while (true) {
+            int kleinstes = i;
+            for (int kind = 2 * i + 1; kind <= 2 * i + 2 && kind < groesse; kind++) {
+                if (besser(heap[kleinstes], heap[kind], summen, versatz, schritt)) {
+                    kleinstes = kind;
+                }
+            }
+            if (kleinstes == i) {
+                return;
+            }
+            tausche(heap, i, kleinstes);
+            i = kleinstes;
+        }
+    }
+
+    private static void tausche(int[] heap, int i, int j) {
+        int code = heap[i];
+        heap[i] = heap[j];
+        heap[j] = code;
+    }
+
+    /**
+     * One place of a leaderboard: a student or teacher name and its total points.
+     */
+    public static final class Platz {
+        private final String name;
+        private final long punkte;
+
+        Platz(String name, long punkte) {
+            this.name = name;
+            this.punkte = punkte;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getPunkte() {
+            return punkte;
+        }
+
+        @Override
+        public String toString() {
+            return name + "#" + punkte;
+        }
+    }
+}
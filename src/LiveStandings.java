@@ -0,0 +1,260 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the house totals of a directory up to date while files are added and written, and rewrites the result of
+ * {@link HogwartsApp#schreibeDatei(String, HausAggregator)} after every change.
+ *
+ * The directory is watched with a {@link WatchService}. Per file the totals and, for the delimited formats, the byte
+ * offset reached so far are kept, so an append only parses the new rows. JSON and XML files cannot be continued in
+ * the middle and are read again completely when they change. Events are debounced: after the first event the
+ * service waits until no further event arrived for the debounce time, so a burst of writes causes one recompute.
+ *
+ * Example:
+ * <pre>
+ *     try (LiveStandings live = new LiveStandings(Path.of("exporte"), datei -&gt; datei.toString().endsWith(".csv"),
+ *             Path.of("ergebnis.txt"), 500)) {
+ *         live.laufe();   // until the thread is interrupted or the service is closed
+ *     }
+ * </pre>
+ */
+public final class LiveStandings implements Closeable {
+    private static final int PRUEFBEREICH = 4096;
+
+    private final HogwartsApp app = new HogwartsApp();
+    private final Path verzeichnis;
+    private final DirectoryStream.Filter<? super Path> filter;
+    private final Path ausgabe;
+    private final long entprellMillis;
+    private final WatchService watcher;
+    private final Quarantine quarantine;
+    private final Map<Path, Datei> dateien = new HashMap<>();
+
+    /**
+     * Starts watching the directory. Files are only read by {@link #laufe()}.
+     *
+     * @param verzeichnis    the directory to watch; subdirectories are not watched
+     * @param filter         decides which files to read
+     * @param ausgabe        the result file, in the format of {@link HogwartsApp#schreibeDatei(String, HausAggregator)};
+     *                       it is never read, even if it lies in the watched directory
+     * @param entprellMillis how long the directory must stay quiet before the totals are recomputed
+     * @throws IOException if the directory cannot be watched
+     */
+    public LiveStandings(Path verzeichnis, DirectoryStream.Filter<? super Path> filter, Path ausgabe, long entprellMillis) throws IOException {
+        this(verzeichnis, filter, ausgabe, entprellMillis, null);
+    }
+
+    /**
+     * Lenient variant of {@link #LiveStandings(Path, DirectoryStream.Filter, Path, long)}: malformed rows are reported
+     * to {@code quarantine} and skipped instead of holding back the totals of their file. Appended rows are only
+     * reported once, but a JSON or XML file is read again on every change and reports its malformed entries again.
+     * The quarantine file is flushed after every update; once the error budget is exceeded, a file keeps its previous
+     * totals like a file that cannot be parsed. The quarantine is not closed by this service.
+     *
+     * @param verzeichnis    the directory to watch; subdirectories are not watched
+     * @param filter         decides which files to read
+     * @param ausgabe        the result file, see {@link #LiveStandings(Path, DirectoryStream.Filter, Path, long)}
+     * @param entprellMillis how long the directory must stay quiet before the totals are recomputed
+     * @param quarantine     receives the malformed rows, or {@code null} to keep a file with one at its previous totals
+     * @throws IOException if the directory cannot be watched
+     */
+    public LiveStandings(Path verzeichnis, DirectoryStream.Filter<? super Path> filter, Path ausgabe, long entprellMillis,
+                         Quarantine quarantine) throws IOException {
+        this.quarantine = quarantine;
+        this.verzeichnis = verzeichnis.toAbsolutePath();
+        this.filter = filter;
+        this.ausgabe = ausgabe.toAbsolutePath();
+        this.entprellMillis = entprellMillis;
+        this.watcher = verzeichnis.getFileSystem().newWatchService();
+        this.verzeichnis.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Reads all current files, writes the result and then updates it after every burst of changes.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Read every accepted file of the directory and write the result once.</li>
+     *     <li>Wait for an event, then keep collecting the changed files until no event arrived for the debounce time.</li>
+     *     <li>Update the totals of the changed files only, merge the totals of all files and rewrite the result.</li>
+     *     <li>If events were lost ({@link StandardWatchEventKinds#OVERFLOW}), check every file of the directory instead.</li>
+     * </ol>
+     * A file that cannot be parsed, e.g. a JSON file caught in the middle of being written or a row with an unknown
+     * house, keeps its previous totals and is tried again on its next change.
+     *
+     * @throws IOException          if the directory cannot be listed or the result cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for changes
+     */
+    public void laufe() throws IOException, InterruptedException {
+        aktualisiere(alleDateien());
+        try {
+            while (true) {
+                Set<Path> geaendert = new LinkedHashSet<>();
+                WatchKey key = watcher.take();
+                while (key != null) {
+                    if (sammle(key, geaendert)) {
+                        geaendert.addAll(alleDateien());
+                    }
+                    if (!key.reset()) {
+                        throw new IOException("Directory is no longer accessible: " + verzeichnis);
+                    }
+                    key = watcher.poll(entprellMillis, TimeUnit.MILLISECONDS);
+                }
+                aktualisiere(geaendert);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close() was called, stop watching
+        }
+    }
+
+    /**
+     * @return the current totals over all files, as last written to the result
+     */
+    public synchronized HausAggregator punkte() {
+        HausAggregator gesamt = new HausAggregator();
+        for (Datei datei : dateien.values()) {
+            gesamt.merge(datei.punkte).merge(datei.rest);
+        }
+        return gesamt;
+    }
+
+    /**
+     * Stops watching the directory; a running {@link #laufe()} returns.
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+
+    /** Adds the files of the events of {@code key} to {@code geaendert}; returns whether events were lost. */
+    private boolean sammle(WatchKey key, Set<Path> geaendert) {
+        boolean verloren = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                verloren = true;
+            } else {
+                geaendert.add(verzeichnis.resolve((Path) event.context()));
+            }
+        }
+        return verloren;
+    }
+
+    private Set<Path> alleDateien() throws IOException {
+        Set<Path> alle = new LinkedHashSet<>(dateien.keySet());
+        try (DirectoryStream<Path> eintraege = Files.newDirectoryStream(verzeichnis)) {
+            eintraege.forEach(alle::add);
+        }
+        return alle;
+    }
+
+    private void aktualisiere(Set<Path> geaendert) throws IOException {
+        synchronized (this) {
+            for (Path path : geaendert) {
+                if (path.equals(ausgabe) || !Files.isRegularFile(path) || !filter.accept(path)) {
+                    dateien.remove(path);
+                    continue;
+                }
+                try {
+                    dateien.computeIfAbsent(path, Datei::new).aktualisiere(quarantine);
+                } catch (IOException | RuntimeException e) {
+                    // a malformed row, e.g. an unknown house, must not stop the service for the other files
+                    System.err.println("Skipping " + path + " until its next change: " + e.getMessage());
+                }
+            }
+        }
+        if (quarantine != null) {
+            quarantine.flush();
+        }
+        app.schreibeDatei(ausgabe.toString(), punkte());
+    }
+
+    /**
+     * The totals of one watched file. For the delimited formats the offset behind the last complete row is kept, so
+     * only appended rows are parsed. A file that was replaced instead of appended to is read from the beginning: it
+     * is recognized by a shorter length, a different file key, an older modification time or a change in its first
+     * bytes, checked like {@link StandingsCheckpoint} does. This also covers a file deleted and created again within
+     * one burst of events.
+     * A last row without line break is counted separately in {@code rest}, as it may still be in the middle of
+     * being written, and is parsed again on the next change.
+     */
+    private static final class Datei {
+        private final Path path;
+        private HausAggregator punkte = new HausAggregator();
+        private HausAggregator rest = new HausAggregator();
+        private long offset;
+        // the identity of the file the offset belongs to
+        private Object dateiSchluessel;
+        private FileTime geaendert;
+        private long pruefLaenge;
+        private long pruefsumme;
+
+        Datei(Path path) {
+            this.path = path;
+        }
+
+        void aktualisiere(Quarantine quarantine) throws IOException {
+            EntryReader reader = EntryReaders.fuer(path);
+            // a compressed file cannot be appended to, it is read again as a whole
+            DelimitedParser parser = Compression.komprimiert(path) ? null : parser(reader.format());
+
+            if (parser == null) {
+                HausAggregator neu = new HausAggregator();
+                reader.lese(path, neu, quarantine);
+                punkte = neu;
+                return;
+            }
+
+            BasicFileAttributes attribute = Files.readAttributes(path, BasicFileAttributes.class);
+            boolean ersetzt = offset > 0 && (attribute.size() < offset
+                    || !Objects.equals(attribute.fileKey(), dateiSchluessel)
+                    || attribute.lastModifiedTime().compareTo(geaendert) < 0
+                    || StandingsCheckpoint.pruefsumme(path, pruefLaenge) != pruefsumme);
+
+            // Parse into a copy, so a failing row leaves the totals and the offset unchanged
+            HausAggregator neu = ersetzt ? new HausAggregator() : new HausAggregator().merge(punkte);
+            long neuerOffset = parser.mitQuarantaene(quarantine).parseAb(path, ersetzt ? 0 : offset, neu);
+            punkte = neu;
+            offset = neuerOffset;
+            dateiSchluessel = attribute.fileKey();
+            geaendert = attribute.lastModifiedTime();
+            pruefLaenge = Math.min(offset, PRUEFBEREICH);
+            pruefsumme = StandingsCheckpoint.pruefsumme(path, pruefLaenge);
+
+            rest = new HausAggregator();
+            if (offset < Files.size(path)) {
+                try {
+                    parser.parseRest(path, offset, rest);
+                } catch (IOException | RuntimeException e) {
+                    // the last row is still being written, it is picked up by the next change
+                    rest = new HausAggregator();
+                }
+            }
+        }
+
+        private static DelimitedParser parser(String format) {
+            switch (format) {
+                case "csv": return DelimitedParser.csv();
+                case "tsv": return DelimitedParser.tsv();
+                case "txt": return DelimitedParser.ampersand();
+                default: return null;
+            }
+        }
+    }
+}
@@ -1,4 +1,9 @@
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -9,26 +14,216 @@ public class Main {
 
         System.out.println("Running HogwartsApp...");
 
-        // Hardcoded file path and type
+        // --stats prints the metrics of every stage when the program exits, also after Ctrl+C in --server or --live mode
+        List<String> optionen = new ArrayList<>(List.of(args));
+        if (optionen.remove("--stats")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println("\n" + HogwartsMetrics.zusammenfassung())));
+            args = optionen.toArray(new String[0]);
+        }
+
+        // --quarantaene <file> skips malformed rows and writes them to the file instead of failing the whole load,
+        // --fehlerbudget <n> fails the load after more than n of them
+        Quarantine quarantine = null;
+        int option = optionen.indexOf("--quarantaene");
+        if (option >= 0 && option + 1 < optionen.size()) {
+            Path datei = Path.of(optionen.remove(option + 1));
+            optionen.remove(option);
+            long fehlerBudget = Long.MAX_VALUE;
+            option = optionen.indexOf("--fehlerbudget");
+            if (option >= 0 && option + 1 < optionen.size()) {
+                fehlerBudget = Long.parseLong(optionen.remove(option + 1));
+                optionen.remove(option);
+            }
+            quarantine = new Quarantine(datei, fehlerBudget);
+            args = optionen.toArray(new String[0]);
+        }
+
+        // Default input and output paths
         String basePath = System.getProperty("user.dir") + "/src/";
-        String filePath = basePath + "punkte.csv"; // Change this to process a different file type
+        String filePath = basePath + "punkte.csv";
         String outputPath = basePath + "ergebnis.txt";
 
-        // Load data based on the hardcoded file type
-        List<Entry> entries = app.leseCSV(filePath); // Change `leseCSV` to the corresponding method for the file type
-        System.out.println("Processing file: " + filePath);
+        // Only parse the rows appended since the last run and update the totals from the checkpoint
+        if (args.length > 0 && args[0].equals("--inkrementell")) {
+            app.schreibeDateiInkrementell(filePath, DelimitedParser.csv().mitQuarantaene(quarantine),
+                    basePath + "ergebnis.checkpoint", outputPath);
+            System.out.println("Results written to: " + outputPath);
+            meldeQuarantaene(quarantine);
+            return;
+        }
+
+        // Read every export of a directory in this one run, e.g. --verzeichnis exporte "*.csv"
+        if (args.length > 1 && args[0].equals("--verzeichnis")) {
+            Path verzeichnis = Path.of(args[1]);
+            PathMatcher muster = verzeichnis.getFileSystem().getPathMatcher(
+                    "glob:" + (args.length > 2 ? args[2] : "*.{csv,tsv,txt,json,jsonl,ndjson,xml}"));
+            Path ergebnis = Path.of(outputPath).toAbsolutePath();
+            Path csvErgebnis = Path.of(basePath + "ergebnis.csv").toAbsolutePath();
+            Path quarantaeneDatei = quarantine == null ? null : quarantine.datei().toAbsolutePath();
+
+            // The results and the quarantine file may be written into the directory being read, so they are never
+            // read back in
+            HausAggregator punkte = DirectoryIngestion.aggregiere(verzeichnis, datei ->
+                    muster.matches(datei.getFileName())
+                            && !datei.toAbsolutePath().equals(ergebnis)
+                            && !datei.toAbsolutePath().equals(csvErgebnis)
+                            && !datei.toAbsolutePath().equals(quarantaeneDatei), 64, quarantine);
+            app.schreibeDatei(outputPath, punkte);
+            app.schreibeCSV(csvErgebnis.toString(), punkte);
+            System.out.println("Results written to: " + outputPath + " and " + csvErgebnis);
+            meldeQuarantaene(quarantine);
+            return;
+        }
+
+        // Keep the result up to date while files in a directory change, e.g. --live exporte "*.csv"
+        if (args.length > 1 && args[0].equals("--live")) {
+            Path verzeichnis = Path.of(args[1]);
+            PathMatcher muster = verzeichnis.getFileSystem().getPathMatcher(
+                    "glob:" + (args.length > 2 ? args[2] : "*.{csv,tsv,txt,json,jsonl,ndjson,xml}"));
+            // the quarantine file is written while the directory is watched, so it is never read back in
+            Path quarantaeneDatei = quarantine == null ? null : quarantine.datei().toAbsolutePath();
+            try (LiveStandings live = new LiveStandings(verzeichnis, datei -> muster.matches(datei.getFileName())
+                    && !datei.toAbsolutePath().equals(quarantaeneDatei), Path.of(outputPath), 500, quarantine)) {
+                System.out.println("Watching " + verzeichnis + ", results are written to: " + outputPath);
+                live.laufe();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                meldeQuarantaene(quarantine);
+            }
+            return;
+        }
+
+        // Standings of the awards between two days, both included, with the weekly totals,
+        // e.g. --zeitraum 2024-09-01 2024-12-20 [files]
+        if (args.length > 2 && args[0].equals("--zeitraum")) {
+            LocalDate von = LocalDate.parse(args[1]);
+            LocalDate bis = LocalDate.parse(args[2]).plusDays(1);
+            List<String> zeitraumDateien = args.length > 3 ? List.of(args).subList(3, args.length) : List.of(filePath);
+            PeriodAggregator verlauf = new PeriodAggregator();
+            for (String datei : zeitraumDateien) {
+                Path path = Path.of(datei);
+                EntryReaders.fuer(path).lese(path, verlauf, quarantine);
+            }
+            meldeQuarantaene(quarantine);
+
+            // The first and the last week only count their days within the range
+            for (LocalDate woche : verlauf.verlauf(PeriodAggregator.Periode.WOCHE, von, bis).keySet()) {
+                LocalDate ende = woche.plusDays(7);
+                HausAggregator punkte = verlauf.stand(woche.isBefore(von) ? von : woche, ende.isAfter(bis) ? bis : ende);
+                System.out.println("Week of " + woche + ":" + stand(punkte));
+            }
+            app.schreibeDatei(outputPath, verlauf.stand(von, bis));
+            System.out.println("Results written to: " + outputPath);
+
+            // Awards without a timestamp cannot be placed in the range, so they are left out, but never silently
+            HausAggregator ohneZeitpunkt = verlauf.ohneZeitpunkt();
+            long ohne = 0;
+            for (Haus haus : Haus.values()) {
+                ohne += ohneZeitpunkt.anzahl(haus);
+            }
+            if (ohne > 0) {
+                System.out.println(ohne + " awards without a timestamp not counted:" + stand(ohneZeitpunkt));
+            }
+            return;
+        }
+
+        // Totals per student or teacher for inputs larger than the heap, spilled to temporary files beyond the
+        // budget in MiB, e.g. --summen studenten --speicherbudget 64 [files]
+        if (args.length > 1 && args[0].equals("--summen")) {
+            SpillingAggregator.Spalte spalte;
+            switch (args[1]) {
+                case "studenten": spalte = SpillingAggregator.Spalte.STUDENT; break;
+                case "lehrer": spalte = SpillingAggregator.Spalte.LEHRER; break;
+                default: throw new IllegalArgumentException("Expected studenten or lehrer after --summen but got " + args[1]);
+            }
+            List<String> summenDateien = new ArrayList<>(List.of(args).subList(2, args.length));
+            long speicherBudget = 64;
+            option = summenDateien.indexOf("--speicherbudget");
+            if (option >= 0 && option + 1 < summenDateien.size()) {
+                speicherBudget = Long.parseLong(summenDateien.remove(option + 1));
+                summenDateien.remove(option);
+            }
+            // the budget is given in MiB and must still fit into a long in bytes
+            if (speicherBudget <= 0 || speicherBudget > Long.MAX_VALUE >> 20) {
+                throw new IllegalArgumentException("The memory budget must be between 1 and " + (Long.MAX_VALUE >> 20)
+                        + " MiB: " + speicherBudget);
+            }
+            if (summenDateien.isEmpty()) {
+                summenDateien.add(filePath);
+            }
+            String summenPath = basePath + "ergebnis-" + args[1] + ".csv";
+            try (SpillingAggregator summen = new SpillingAggregator(spalte, speicherBudget << 20)) {
+                for (String datei : summenDateien) {
+                    Path path = Path.of(datei);
+                    EntryReaders.fuer(path).lese(path, summen, quarantine);
+                }
+                meldeQuarantaene(quarantine);
+                app.schreibeCSV(summenPath, summen);
+                System.out.println("Results written to: " + summenPath + " (" + summen.spills() + " spills)");
+            }
+            return;
+        }
+
+        // Serve the standings and student lookups over HTTP, e.g. --server 8080
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            // Send small responses without waiting for delayed ACKs; the JDK server reads this once, on first use
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            List<Entry> geladen = app.lese(filePath, quarantine);
+            meldeQuarantaene(quarantine);
+            try (StandingsServer server = new StandingsServer(geladen, new InetSocketAddress(port))) {
+                System.out.println("Serving " + filePath + " on http://localhost:" + server.port() + "/standings");
+                Thread.currentThread().join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        // Load every file given on the command line, or the default file; the format of each is detected
+        List<String> dateien = args.length > 0 ? List.of(args) : List.of(filePath);
+        List<Entry> entries = new ArrayList<>();
+        for (String datei : dateien) {
+            System.out.println("Processing file: " + datei);
+            entries.addAll(app.lese(datei, quarantine));
+        }
+        meldeQuarantaene(quarantine);
+
+        // Build the indexes once, every query below reuses them
+        PrefixIndex studentenIndex = PrefixIndex.studenten(entries, false);
+        HausIndex hausIndex = HausIndex.von(entries);
 
         // Perform operations
         System.out.println("Enter a character to filter student names (e.g., 'H'):");
         char g = input.next().charAt(0);
         System.out.println("Students with names starting with '" + g + "':");
-        app.studierendeGrossbuchstaben(g, entries);
+        app.studierendeGrossbuchstaben(g, studentenIndex);
 
         System.out.println("\nGryffindor students:");
-        app.griffindorStudierende(entries);
+        app.griffindorStudierende(hausIndex);
 
         // Write results to file
         app.schreibeDatei(outputPath, entries);
         System.out.println("\nResults written to: " + outputPath);
     }
+
+    private static String stand(HausAggregator punkte) {
+        StringBuilder zeile = new StringBuilder();
+        for (Haus haus : punkte.rangfolge()) {
+            zeile.append(' ').append(haus).append('#').append(punkte.summe(haus));
+        }
+        return zeile.toString();
+    }
+
+    private static void meldeQuarantaene(Quarantine quarantine) throws IOException {
+        if (quarantine != null) {
+            quarantine.close();
+            if (quarantine.anzahl() > 0) {
+                System.out.println(quarantine.anzahl() + " malformed rows skipped, see " + quarantine.datei());
+            }
+        }
+    }
 }
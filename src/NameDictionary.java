@@ -0,0 +1,69 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for names: every distinct name is stored once and referenced by a dense int code,
+ * starting at {@code 0} in insertion order.
+ *
+ * Example:
+ * <pre>
+ *     NameDictionary namen = new NameDictionary();
+ *     int harry = namen.code("Harry Potter");   // 0
+ *     int ron = namen.code("Ron Weasley");      // 1
+ *     namen.code("Harry Potter");               // 0 again
+ *     namen.name(ron);                          // "Ron Weasley"
+ * </pre>
+ */
+public final class NameDictionary {
+    /** The code used for a missing ({@code null}) name. */
+    public static final int KEIN_NAME = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] namen = new String[16];
+    private int groesse;
+
+    /**
+     * Returns the code of {@code name}, adding it to the dictionary if it is not known yet.
+     *
+     * @param name the name to encode, may be {@code null}
+     * @return the code of the name, or {@link #KEIN_NAME} for {@code null}
+     */
+    public int code(String name) {
+        if (name == null) {
+            return KEIN_NAME;
+        }
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+
+        if (groesse == namen.length) {
+            namen = Arrays.copyOf(namen, groesse * 2);
+        }
+        namen[groesse] = name;
+        codes.put(name, groesse);
+        return groesse++;
+    }
+
+    /**
+     * @param code a code returned by {@link #code(String)} or {@link #KEIN_NAME}
+     * @return the name for the code, or {@code null} for {@link #KEIN_NAME}
+     */
+    public String name(int code) {
+        if (code == KEIN_NAME) {
+            return null;
+        }
+        if (code < 0 || code >= groesse) {
+            throw new IndexOutOfBoundsException("No name with code " + code);
+        }
+        return namen[code];
+    }
+
+    /**
+     * @return the number of distinct names
+     */
+    public int size() {
+        return groesse;
+    }
+}
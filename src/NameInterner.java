@@ -0,0 +1,239 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates student and teacher names while files are read. The data holds a few thousand distinct names across
+ * millions of rows, so instead of one new {@link String} per row, every reader asks the interner for the canonical
+ * instance of the name it just parsed.
+ *
+ * Lookups work on the raw input: the hash of a name is computed directly from the bytes of a mapped file or the
+ * characters of a read buffer, and a {@link String} is only created for a name that is not in the table yet. The hash
+ * is the one of {@link String#hashCode()}, which is the same for ASCII bytes and characters, so all three kinds of
+ * input share one table. Names containing non-ASCII bytes are decoded first and then looked up.
+ *
+ * The table is open-addressed and can be read by any number of threads without locking; only adding a new name
+ * synchronizes. Once {@code maxNamen} names are stored, further new names are returned as they are without being
+ * added, so unexpected data cannot make the table grow without bounds.
+ *
+ * Example:
+ * <pre>
+ *     NameInterner namen = NameInterner.gemeinsam();
+ *     String a = namen.intern("Harry Potter");
+ *     String b = namen.intern(new StringBuilder("Harry Potter").toString());
+ *     a == b;                        // true
+ *     System.out.println(namen.statistik());
+ * </pre>
+ */
+public final class NameInterner {
+    private static final NameInterner GEMEINSAM = new NameInterner(1 << 20);
+
+    private final int maxNamen;
+    private volatile String[] tabelle = new String[1024];
+    private int groesse;
+    private long belegteBytes;
+    private final LongAdder treffer = new LongAdder();
+    private final LongAdder neu = new LongAdder();
+
+    /**
+     * @param maxNamen the maximum number of distinct names to keep
+     */
+    public NameInterner(int maxNamen) {
+        this.maxNamen = maxNamen;
+    }
+
+    /**
+     * @return the interner shared by all readers of {@link HogwartsApp}, so names read from different files and
+     *         formats share the same instances
+     */
+    public static NameInterner gemeinsam() {
+        return GEMEINSAM;
+    }
+
+    /**
+     * @param name the name to look up, may be {@code null}
+     * @return the canonical instance of {@code name}, or {@code null}
+     */
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        int hash = name.hashCode();
+        String[] t = tabelle;
+        for (int i = index(hash, t); t[i] != null; i = (i + 1) & (t.length - 1)) {
+            String kandidat = t[i];
+            if (kandidat.hashCode() == hash && kandidat.equals(name)) {
+                treffer.increment();
+                return kandidat;
+            }
+        }
+        return fuegeEin(name, hash);
+    }
+
+    /**
+     * Looks up the name in {@code zeichen[start, ende)}.
+     *
+     * @param zeichen the characters holding the name
+     * @param start   the index of the first character
+     * @param ende    the index behind the last character
+     * @return the canonical instance of the name
+     */
+    public String intern(char[] zeichen, int start, int ende) {
+        int hash = 0;
+        for (int i = start; i < ende; i++) {
+            hash = 31 * hash + zeichen[i];
+        }
+        String[] t = tabelle;
+        for (int i = index(hash, t); t[i] != null; i = (i + 1) & (t.length - 1)) {
+            String kandidat = t[i];
+            if (kandidat.hashCode() == hash && gleich(kandidat, zeichen, start, ende)) {
+                treffer.increment();
+                return kandidat;
+            }
+        }
+        return fuegeEin(new String(zeichen, start, ende - start), hash);
+    }
+
+    /**
+     * Looks up the UTF-8 encoded name in {@code buf[start, ende)}, without creating a {@link String} if the name is
+     * already known and plain ASCII.
+     *
+     * @param buf   the buffer holding the name, e.g. a mapped file
+     * @param start the index of the first byte
+     * @param ende  the index behind the last byte
+     * @return the canonical instance of the name
+     */
+    public String intern(ByteBuffer buf, int start, int ende) {
+        int hash = 0;
+        for (int i = start; i < ende; i++) {
+            byte b = buf.get(i);
+            if (b < 0) {
+                byte[] bytes = new byte[ende - start];
+                buf.get(start, bytes);
+                return intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+            hash = 31 * hash + b;
+        }
+        String[] t = tabelle;
+        for (int i = index(hash, t); t[i] != null; i = (i + 1) & (t.length - 1)) {
+            String kandidat = t[i];
+            if (kandidat.hashCode() == hash && gleich(kandidat, buf, start, ende)) {
+                treffer.increment();
+                return kandidat;
+            }
+        }
+        byte[] bytes = new byte[ende - start];
+        buf.get(start, bytes);
+        return fuegeEin(new String(bytes, StandardCharsets.ISO_8859_1), hash);
+    }
+
+    /**
+     * @return the number of distinct names stored
+     */
+    public synchronized int size() {
+        return groesse;
+    }
+
+    /**
+     * @return how many lookups returned an already stored instance
+     */
+    public long treffer() {
+        return treffer.sum();
+    }
+
+    /**
+     * @return how many lookups had to create a new {@link String}
+     */
+    public long neu() {
+        return neu.sum();
+    }
+
+    /**
+     * Estimates the heap retained by the interner: the table plus every stored name, counting the object header,
+     * the fields and the byte array of each {@link String} with compressed pointers.
+     *
+     * @return the estimated number of retained bytes
+     */
+    public synchronized long belegteBytes() {
+        return 16 + 4L * tabelle.length + belegteBytes;
+    }
+
+    /**
+     * @return a one-line summary of the interner, e.g.
+     *         {@code "Names: 5040 distinct, 3994960 of 4000000 lookups reused (99.9%), ~412 KiB retained"}
+     */
+    public String statistik() {
+        long wiederverwendet = treffer();
+        long gesamt = wiederverwendet + neu();
+        return String.format(Locale.ROOT, "Names: %d distinct, %d of %d lookups reused (%.1f%%), ~%d KiB retained",
+                size(), wiederverwendet, gesamt, gesamt == 0 ? 0.0 : 100.0 * wiederverwendet / gesamt, belegteBytes() / 1024);
+    }
+
+    private synchronized String fuegeEin(String name, int hash) {
+        String[] t = tabelle;
+        int i = index(hash, t);
+        for (; t[i] != null; i = (i + 1) & (t.length - 1)) {
+            // another thread may have added the name since the lock-free lookup
+            if (t[i].hashCode() == hash && t[i].equals(name)) {
+                treffer.increment();
+                return t[i];
+            }
+        }
+        neu.increment();
+        if (groesse >= maxNamen) {
+            return name;
+        }
+
+        t[i] = name;
+        groesse++;
+        // String header and fields, then the byte array header and its contents, each padded to 8 bytes
+        belegteBytes += 24 + ((16 + (long) name.length() * (name.chars().allMatch(c -> c < 0x100) ? 1 : 2) + 7) & ~7);
+        if (groesse * 2 > t.length) {
+            wachse(t);
+        }
+        return name;
+    }
+
+    private void wachse(String[] alt) {
+        String[] groesser = new String[alt.length * 2];
+        for (String name : alt) {
+            if (name != null) {
+                int i = index(name.hashCode(), groesser);
+                while (groesser[i] != null) {
+                    i = (i + 1) & (groesser.length - 1);
+                }
+                groesser[i] = name;
+            }
+        }
+        tabelle = groesser;
+    }
+
+    private static int index(int hash, String[] tabelle) {
+        return (hash ^ (hash >>> 16)) & (tabelle.length - 1);
+    }
+
+    private static boolean gleich(String name, char[] zeichen, int start, int ende) {
+        if (name.length() != ende - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != zeichen[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean gleich(String name, ByteBuffer buf, int start, int ende) {
+        if (name.length() != ende - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != buf.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
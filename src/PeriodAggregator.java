@@ -0,0 +1,242 @@
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the house totals of timestamped awards in pre-rolled time buckets, so the standings of any date range are
+ * answered from a few buckets instead of by filtering the raw rows again. Every award is added to the bucket of
+ * its day, of its week and of its term, each a {@link HausAggregator}.
+ *
+ * The buckets are:
+ * <ul>
+ *     <li>{@link Periode#TAG} - one calendar day</li>
+ *     <li>{@link Periode#WOCHE} - an ISO week from Monday to Sunday</li>
+ *     <li>{@link Periode#TRIMESTER} - a term of the school year: autumn from 1 September to 31 December, spring from
+ *     1 January to 31 March and summer from 1 April to 31 August</li>
+ * </ul>
+ * A range is covered by whole terms where it contains them, by whole weeks inside the remaining stretches and by
+ * single days at the edges, so a query over a school year merges about three terms plus a few weeks and days.
+ *
+ * Example:
+ * <pre>
+ *     PeriodAggregator verlauf = new PeriodAggregator();
+ *     EntryReaders.fuer(path).lese(path, verlauf);
+ *     HausAggregator herbst = verlauf.stand(LocalDate.of(2024, 9, 1), LocalDate.of(2025, 1, 1));
+ *     verlauf.verlauf(PeriodAggregator.Periode.WOCHE, LocalDate.of(2024, 9, 1), LocalDate.of(2024, 10, 1))
+ *             .forEach((woche, punkte) -&gt; System.out.println(woche + ": " + punkte.summe(Haus.Gryffindor)));
+ * </pre>
+ * <p>
+ * Awards without a timestamp are kept apart and returned by {@link #ohneZeitpunkt()}. An instance is not
+ * thread-safe; parallel readers fill their own instances and combine them with {@link #merge(PeriodAggregator)}.
+ */
+public final class PeriodAggregator implements EntrySink {
+    /**
+     * The length of a time bucket. Buckets are identified by the day they start on, counted like
+     * {@link LocalDate#toEpochDay()}.
+     */
+    public enum Periode {
+        TAG, WOCHE, TRIMESTER;
+
+        /**
+         * @param tag a day
+         * @return the first day of the bucket containing {@code tag}
+         */
+        public long beginn(long tag) {
+            switch (this) {
+                case TAG: return tag;
+                // day 0, 1970-01-01, was a Thursday
+                case WOCHE: return tag - Math.floorMod(tag + 3, 7);
+                default: {
+                    LocalDate datum = LocalDate.ofEpochDay(tag);
+                    int monat = datum.getMonthValue();
+                    return LocalDate.of(datum.getYear(), monat >= 9 ? 9 : monat >= 4 ? 4 : 1, 1).toEpochDay();
+                }
+            }
+        }
+
+        /**
+         * @param beginn the first day of a bucket
+         * @return the first day of the following bucket
+         */
+        public long naechster(long beginn) {
+            switch (this) {
+                case TAG: return beginn + 1;
+                case WOCHE: return beginn + 7;
+                default: {
+                    LocalDate datum = LocalDate.ofEpochDay(beginn);
+                    int monat = datum.getMonthValue();
+                    return datum.plusMonths(monat == 9 ? 4 : monat == 1 ? 3 : 5).toEpochDay();
+                }
+            }
+        }
+    }
+
+    private final TreeMap<Long, HausAggregator> tage = new TreeMap<>();
+    private final TreeMap<Long, HausAggregator> wochen = new TreeMap<>();
+    private final TreeMap<Long, HausAggregator> trimester = new TreeMap<>();
+    private final HausAggregator ohneZeitpunkt = new HausAggregator();
+
+    // The buckets of the day of the previous award; exports are mostly in time order, so most awards reuse them
+    private long letzterTag = Long.MIN_VALUE;
+    private HausAggregator tagEimer;
+    private HausAggregator wochenEimer;
+    private HausAggregator trimesterEimer;
+
+    /**
+     * Counts a row of a reader that does not pass timestamps.
+     */
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        ohneZeitpunkt.add(haus, punkte);
+    }
+
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte, long zeitpunkt) {
+        add(haus, punkte, zeitpunkt);
+    }
+
+    /**
+     * @param entry the award to add, with or without {@link Entry#getZeitpunkt()}
+     */
+    public void add(Entry entry) {
+        add(entry.getHaus(), entry.getPunkte(), Timestamps.sekunden(entry.getZeitpunkt()));
+    }
+
+    /**
+     * Adds one award to the buckets of its day, week and term.
+     *
+     * @param haus      the house receiving the points; {@code null} is ignored
+     * @param punkte    the points, negative for a deduction
+     * @param zeitpunkt the time of the award as described in {@link Timestamps}, or {@link EntrySink#KEIN_ZEITPUNKT}
+     */
+    public void add(Haus haus, int punkte, long zeitpunkt) {
+        if (zeitpunkt == KEIN_ZEITPUNKT) {
+            ohneZeitpunkt.add(haus, punkte);
+            return;
+        }
+        long tag = Timestamps.tag(zeitpunkt);
+        if (tag != letzterTag) {
+            tagEimer = eimer(tage, Periode.TAG.beginn(tag));
+            wochenEimer = eimer(wochen, Periode.WOCHE.beginn(tag));
+            trimesterEimer = eimer(trimester, Periode.TRIMESTER.beginn(tag));
+            letzterTag = tag;
+        }
+        tagEimer.add(haus, punkte);
+        wochenEimer.add(haus, punkte);
+        trimesterEimer.add(haus, punkte);
+    }
+
+    /**
+     * Returns the standings of the awards in a date range, merged from the fewest buckets that cover it.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Start at {@code von} and repeat until {@code bis} is reached.</li>
+     *     <li>If a term starts on the current day and ends within the range, take the term bucket and skip the
+     *     term.</li>
+     *     <li>Otherwise, if a week starts on the current day and ends within the range and within the current term,
+     *     take the week bucket and skip the week.</li>
+     *     <li>Otherwise take the day bucket and move to the next day.</li>
+     * </ol>
+     * The number of merged buckets depends on the length of the range, not on the number of awards in it.
+     *
+     * @param von the first day of the range
+     * @param bis the day after the range
+     * @return a new {@link HausAggregator} with the totals of all timestamped awards in the range
+     */
+    public HausAggregator stand(LocalDate von, LocalDate bis) {
+        HausAggregator stand = new HausAggregator();
+        long tag = von.toEpochDay();
+        long ende = bis.toEpochDay();
+        while (tag < ende) {
+            long trimesterBeginn = Periode.TRIMESTER.beginn(tag);
+            long trimesterEnde = Periode.TRIMESTER.naechster(trimesterBeginn);
+            if (trimesterBeginn == tag && trimesterEnde <= ende) {
+                addiere(trimester, tag, stand);
+                tag = trimesterEnde;
+            } else if (Periode.WOCHE.beginn(tag) == tag && tag + 7 <= Math.min(ende, trimesterEnde)) {
+                addiere(wochen, tag, stand);
+                tag += 7;
+            } else {
+                addiere(tage, tag, stand);
+                tag++;
+            }
+        }
+        return stand;
+    }
+
+    /**
+     * @param periode the bucket length
+     * @param datum   a day
+     * @return a new {@link HausAggregator} with the totals of the bucket containing {@code datum}
+     */
+    public HausAggregator stand(Periode periode, LocalDate datum) {
+        HausAggregator stand = new HausAggregator();
+        addiere(eimer(periode), periode.beginn(datum.toEpochDay()), stand);
+        return stand;
+    }
+
+    /**
+     * Returns the standings per bucket, e.g. per week, for the buckets that hold at least one award.
+     *
+     * @param periode the bucket length
+     * @param von     a day within the first bucket
+     * @param bis     the day after the range; a bucket is included if it starts before this day
+     * @return the buckets by their first day, in time order; each value is a copy
+     */
+    public NavigableMap<LocalDate, HausAggregator> verlauf(Periode periode, LocalDate von, LocalDate bis) {
+        NavigableMap<LocalDate, HausAggregator> verlauf = new TreeMap<>();
+        long beginn = periode.beginn(von.toEpochDay());
+        for (Map.Entry<Long, HausAggregator> eimer : eimer(periode).subMap(beginn, bis.toEpochDay()).entrySet()) {
+            verlauf.put(LocalDate.ofEpochDay(eimer.getKey()), new HausAggregator().merge(eimer.getValue()));
+        }
+        return verlauf;
+    }
+
+    /**
+     * @return a new {@link HausAggregator} with the totals of the awards that had no timestamp
+     */
+    public HausAggregator ohneZeitpunkt() {
+        return new HausAggregator().merge(ohneZeitpunkt);
+    }
+
+    /**
+     * Adds the buckets of {@code other} to this instance.
+     *
+     * @param other the instance to add; it is not changed
+     * @return this
+     */
+    public PeriodAggregator merge(PeriodAggregator other) {
+        vereinige(tage, other.tage);
+        vereinige(wochen, other.wochen);
+        vereinige(trimester, other.trimester);
+        ohneZeitpunkt.merge(other.ohneZeitpunkt);
+        return this;
+    }
+
+    private TreeMap<Long, HausAggregator> eimer(Periode periode) {
+        switch (periode) {
+            case TAG: return tage;
+            case WOCHE: return wochen;
+            default: return trimester;
+        }
+    }
+
+    private static HausAggregator eimer(TreeMap<Long, HausAggregator> eimer, long beginn) {
+        return eimer.computeIfAbsent(beginn, b -> new HausAggregator());
+    }
+
+    private static void addiere(TreeMap<Long, HausAggregator> eimer, long beginn, HausAggregator stand) {
+        HausAggregator punkte = eimer.get(beginn);
+        if (punkte != null) {
+            stand.merge(punkte);
+        }
+    }
+
+    private static void vereinige(TreeMap<Long, HausAggregator> ziel, TreeMap<Long, HausAggregator> quelle) {
+        for (Map.Entry<Long, HausAggregator> eimer : quelle.entrySet()) {
+            eimer(ziel, eimer.getKey()).merge(eimer.getValue());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable index over distinct names that answers prefix queries without scanning all entries.
+ * The names are kept in a sorted array: a query binary-searches the first match and then walks forward
+ * while names still match, so it costs {@code O(log n + k)} for {@code k} results.
+ *
+ * In case-insensitive mode names are ordered by {@link String#CASE_INSENSITIVE_ORDER}, which folds each
+ * character the same way {@link String#regionMatches(boolean, int, String, int, int)} does, so all names
+ * matching a prefix in any case are still adjacent.
+ *
+ * Example:
+ * <pre>
+ *     PrefixIndex index = PrefixIndex.studenten(entries, true);   // built once after loading
+ *     index.suche('h');                                          // [Harry Potter, Hermione Granger]
+ *     index.suche("Her");                                        // [Hermione Granger]
+ * </pre>
+ */
+public final class PrefixIndex {
+    private final String[] namen;
+    private final Comparator<String> ordnung;
+    private final boolean ignoreCase;
+
+    private PrefixIndex(String[] namen, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.ordnung = ignoreCase ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+        // The natural order breaks ties between names that differ only in case, so the result order is stable
+        Arrays.sort(namen, ordnung.thenComparing(Comparator.naturalOrder()));
+        this.namen = namen;
+    }
+
+    /**
+     * Builds an index over the given names. Duplicates and {@code null} names are ignored.
+     *
+     * @param namen      the names to index
+     * @param ignoreCase whether queries should match regardless of case
+     * @return the index
+     */
+    public static PrefixIndex von(Iterable<String> namen, boolean ignoreCase) {
+        Set<String> eindeutig = new HashSet<>();
+        for (String name : namen) {
+            if (name != null) {
+                eindeutig.add(name);
+            }
+        }
+        return new PrefixIndex(eindeutig.toArray(new String[0]), ignoreCase);
+    }
+
+    /**
+     * Builds an index over the distinct student names of the entries.
+     *
+     * @param entries    the loaded entries
+     * @param ignoreCase whether queries should match regardless of case
+     * @return the index
+     */
+    public static PrefixIndex studenten(List<Entry> entries, boolean ignoreCase) {
+        return von(() -> entries.stream().map(Entry::getStudentName).iterator(), ignoreCase);
+    }
+
+    /**
+     * Builds an index over the student names of the table. The table's {@link NameDictionary} already
+     * holds every name once, so no rows are scanned.
+     *
+     * @param tabelle    the loaded table
+     * @param ignoreCase whether queries should match regardless of case
+     * @return the index
+     */
+    public static PrefixIndex studenten(EntryTable tabelle, boolean ignoreCase) {
+        NameDictionary dictionary = tabelle.studentNamen();
+        String[] namen = new String[dictionary.size()];
+        for (int code = 0; code < namen.length; code++) {
+            namen[code] = dictionary.name(code);
+        }
+        return new PrefixIndex(namen, ignoreCase);
+    }
+
+    /**
+     * @param g the first letter to search for
+     * @return the names starting with {@code g}, see {@link #suche(String)}
+     */
+    public List<String> suche(char g) {
+        return suche(String.valueOf(g));
+    }
+
+    /**
+     * Returns the names starting with {@code prefix}, in sorted order.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Binary search for the first name that does not sort before the prefix.</li>
+     *     <li>Walk forward while the names still start with the prefix.</li>
+     *     <li>Return that range of the sorted array as an unmodifiable view, without copying.</li>
+     * </ol>
+     *
+     * @param prefix the prefix to search for, the empty prefix matches all names
+     * @return an unmodifiable list of the matching names
+     */
+    public List<String> suche(String prefix) {
+        int von = ersterTreffer(prefix);
+        int bis = von;
+        while (bis < namen.length && beginntMit(namen[bis], prefix)) {
+            bis++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(namen).subList(von, bis));
+    }
+
+    /**
+     * @return the number of distinct names in the index
+     */
+    public int size() {
+        return namen.length;
+    }
+
+    /**
+     * @return whether queries match regardless of case
+     */
+    public boolean ignoreCase() {
+        return ignoreCase;
+    }
+
+    private int ersterTreffer(String prefix) {
+        int links = 0;
+        int rechts = namen.length;
+        while (links < rechts) {
+            int mitte = (links + rechts) >>> 1;
+            if (ordnung.compare(namen[mitte], prefix) < 0) {
+                links = mitte + 1;
+            } else {
+                rechts = mitte;
+            }
+        }
+        return links;
+    }
+
+    private boolean beginntMit(String name, String prefix) {
+        return name.regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+    }
+}
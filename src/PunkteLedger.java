@@ -0,0 +1,134 @@
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe ledger of point awards. Any number of threads may record awards while others query the standings;
+ * no operation takes a lock.
+ *
+ * Per house the total and the number of awards are kept in {@link LongAdder}s and the smallest and largest award in
+ * {@link LongAccumulator}s. They spread concurrent updates over several cells instead of contending on one counter,
+ * so recording scales with the number of writing threads. Per student the total is kept in a {@link LongAdder} of a
+ * {@link ConcurrentHashMap}, created on the first award of the student.
+ *
+ * Example:
+ * <pre>
+ *     PunkteLedger ledger = new PunkteLedger();
+ *     // on any number of threads:
+ *     ledger.award("Harry Potter", Haus.Gryffindor, "Minerva McGonagall", 10);
+ *     // on any thread, at any time:
+ *     app.schreibeDatei("ergebnis.txt", ledger.snapshot());
+ * </pre>
+ */
+public final class PunkteLedger implements EntrySink {
+    private static final Haus[] HAEUSER = Haus.values();
+
+    /** How often {@link #snapshot()} re-reads the houses before it settles for a quiescently consistent result. */
+    private static final int VERSUCHE = 16;
+
+    private final LongAdder[] summen = new LongAdder[HAEUSER.length];
+    private final LongAdder[] anzahl = new LongAdder[HAEUSER.length];
+    private final LongAccumulator[] minimum = new LongAccumulator[HAEUSER.length];
+    private final LongAccumulator[] maximum = new LongAccumulator[HAEUSER.length];
+    private final ConcurrentHashMap<String, LongAdder> studenten = new ConcurrentHashMap<>();
+    private final LongAdder begonnen = new LongAdder();
+    private final LongAdder beendet = new LongAdder();
+
+    public PunkteLedger() {
+        for (int i = 0; i < HAEUSER.length; i++) {
+            summen[i] = new LongAdder();
+            anzahl[i] = new LongAdder();
+            minimum[i] = new LongAccumulator(Math::min, Integer.MAX_VALUE);
+            maximum[i] = new LongAccumulator(Math::max, Integer.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Records one award. Safe to call from any number of threads at the same time.
+     *
+     * @param studentName the student receiving the points, or {@code null} to only count them for the house
+     * @param haus        the house of the student
+     * @param lehrerName  the teacher awarding the points; not tracked by the ledger
+     * @param punkte      the points, negative for a deduction
+     */
+    public void award(String studentName, Haus haus, String lehrerName, int punkte) {
+        Objects.requireNonNull(haus, "haus");
+        int i = haus.ordinal();
+
+        begonnen.increment();
+        summen[i].add(punkte);
+        anzahl[i].increment();
+        minimum[i].accumulate(punkte);
+        maximum[i].accumulate(punkte);
+        beendet.increment();
+
+        if (studentName != null) {
+            studenten.computeIfAbsent(studentName, name -> new LongAdder()).add(punkte);
+        }
+    }
+
+    /**
+     * Records a parsed row, so a reader can feed the ledger directly. Rows without a house are ignored.
+     */
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        if (haus != null) {
+            award(studentName, haus, lehrerName, punkte);
+        }
+    }
+
+    /**
+     * Returns the house standings without blocking writers.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Read how many awards were completed, then the aggregates of every house, then how many awards were
+     *     started.</li>
+     *     <li>If both counts are equal, no award was in progress while the houses were read, so the result is exactly
+     *     the state after the last completed award.</li>
+     *     <li>Otherwise retry; after {@value #VERSUCHE} attempts under constant writes, return the last reading. It
+     *     contains every award completed before the call and possibly some of those in progress during it.</li>
+     * </ol>
+     *
+     * @return a new {@link HausAggregator} holding the totals, counts, minima and maxima of all houses
+     */
+    public HausAggregator snapshot() {
+        HausAggregator stand = new HausAggregator();
+        for (int versuch = 0; versuch < VERSUCHE; versuch++) {
+            long vorher = beendet.sum();
+            for (int i = 0; i < HAEUSER.length; i++) {
+                stand.setze(HAEUSER[i], summen[i].sum(), anzahl[i].sum(), (int) minimum[i].get(), (int) maximum[i].get());
+            }
+            if (begonnen.sum() == vorher) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        return stand;
+    }
+
+    /**
+     * @param haus the house to query
+     * @return the current total of the house; concurrent awards may or may not be included
+     */
+    public long summe(Haus haus) {
+        return summen[haus.ordinal()].sum();
+    }
+
+    /**
+     * @param studentName the student to query
+     * @return the current total of the student, or {@code 0} if the student has no awards
+     */
+    public long punkte(String studentName) {
+        LongAdder summe = studenten.get(studentName);
+        return summe == null ? 0 : summe.sum();
+    }
+
+    /**
+     * @return the number of students with at least one award
+     */
+    public int anzahlStudenten() {
+        return studenten.size();
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Collects the malformed rows of a lenient read instead of failing the whole load. A reader that is given a
+ * quarantine skips every row it cannot parse, reports it here with the file, offset and reason, and carries on
+ * with the next row. Without a quarantine the readers stay strict and throw on the first malformed row.
+ *
+ * The reported rows are written to a tab separated file with the columns {@code datei}, {@code offset},
+ * {@code grund} and {@code inhalt}. The offset is the byte offset of the row for the delimited formats and the
+ * character offset of the record for JSON and XML; {@code inhalt} holds the raw row where the reader still has it.
+ * Tabs, line breaks and backslashes in the values are escaped as {@code \t}, {@code \n}, {@code \r} and {@code \\}.
+ * The file is only created when the first row is reported, so a clean input leaves no file behind.
+ *
+ * The error budget limits how many rows may be skipped: the report exceeding it fails the read with an
+ * {@link IOException}, since an input with that many broken rows is more likely the wrong file than a few bad ones.
+ * A quarantine is safe to share between the threads of a parallel read. Every report is also counted in the
+ * {@link HogwartsMetrics}, next to the failed runs.
+ *
+ * Example:
+ * <pre>
+ *     try (Quarantine quarantine = new Quarantine(Path.of("quarantaene.tsv"), 1000)) {
+ *         List&lt;Entry&gt; entries = app.lese("punkte.csv", quarantine);
+ *         System.out.println(quarantine.anzahl() + " malformed rows skipped");
+ *     }
+ * </pre>
+ */
+public final class Quarantine implements Closeable {
+    private final Path datei;
+    private final long fehlerBudget;
+    private BufferedWriter writer;
+    private long anzahl;
+
+    /**
+     * @param datei        the file the malformed rows are written to; an existing file is replaced
+     * @param fehlerBudget how many malformed rows may be skipped before the read fails, {@link Long#MAX_VALUE}
+     *                     for no limit
+     */
+    public Quarantine(Path datei, long fehlerBudget) {
+        if (fehlerBudget < 0) {
+            throw new IllegalArgumentException("The error budget must not be negative: " + fehlerBudget);
+        }
+        this.datei = datei;
+        this.fehlerBudget = fehlerBudget;
+    }
+
+    /**
+     * Records one malformed row.
+     *
+     * @param quelle the file the row was read from
+     * @param offset the offset of the row in {@code quelle}
+     * @param grund  why the row was rejected
+     * @param inhalt the raw row, or {@code null} if the reader no longer has it
+     * @throws IOException if the quarantine file cannot be written or the row exceeds the error budget
+     */
+    public synchronized void melde(Path quelle, long offset, String grund, String inhalt) throws IOException {
+        anzahl++;
+        HogwartsMetrics.verworfen(quelle, offset, grund);
+        if (writer == null) {
+            writer = Files.newBufferedWriter(datei, StandardCharsets.UTF_8);
+            writer.write("datei\toffset\tgrund\tinhalt");
+            writer.newLine();
+        }
+        writer.write(maskiere(String.valueOf(quelle)));
+        writer.write('\t');
+        writer.write(Long.toString(offset));
+        writer.write('\t');
+        writer.write(maskiere(grund));
+        writer.write('\t');
+        writer.write(inhalt == null ? "" : maskiere(inhalt));
+        writer.newLine();
+
+        if (anzahl > fehlerBudget) {
+            writer.flush();
+            throw new IOException("More than " + fehlerBudget + " malformed rows, the last one in " + quelle
+                    + " at offset " + offset + ": " + grund + " (see " + datei + ")");
+        }
+    }
+
+    /**
+     * Writes the rows reported so far to the quarantine file, for a long-running read whose file is watched while it
+     * is still open.
+     *
+     * @throws IOException if the quarantine file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return the number of malformed rows reported so far
+     */
+    public synchronized long anzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @return the file the malformed rows are written to
+     */
+    public Path datei() {
+        return datei;
+    }
+
+    /**
+     * Flushes and closes the quarantine file, if any row was reported.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static String maskiere(String wert) {
+        StringBuilder maskiert = null;
+        for (int i = 0; i < wert.length(); i++) {
+            char c = wert.charAt(i);
+            String ersatz;
+            switch (c) {
+                case '\t': ersatz = "\\t"; break;
+                case '\n': ersatz = "\\n"; break;
+                case '\r': ersatz = "\\r"; break;
+                case '\\': ersatz = "\\\\"; break;
+                default: ersatz = null;
+            }
+            if (ersatz != null && maskiert == null) {
+                maskiert = new StringBuilder(wert.length() + 8).append(wert, 0, i);
+            }
+            if (maskiert != null) {
+                if (ersatz != null) {
+                    maskiert.append(ersatz);
+                } else {
+                    maskiert.append(c);
+                }
+            }
+        }
+        return maskiert == null ? wert : maskiert.toString();
+    }
+}
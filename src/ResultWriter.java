@@ -0,0 +1,253 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes result files so that readers never see a partly written file. Rows are encoded into a reusable
+ * byte buffer and written to a temporary file next to the target through a {@link FileChannel} in large
+ * batches; only when the content is complete is the temporary file moved over the target in one atomic step.
+ *
+ * Writes can also run on a background thread with {@link #schreibeAsync(Path, Inhalt)}, so the caller does
+ * not wait for the disk. All writes of one instance, synchronous or not, share the buffer and are serialized.
+ *
+ * Example:
+ * <pre>
+ *     ResultWriter writer = new ResultWriter();
+ *     writer.schreibe(Path.of("ergebnis.txt"), zeilen -&gt; {
+ *         for (Haus haus : punkte.rangfolge()) {
+ *             zeilen.text(haus.name()).zeichen('#').zahl(punkte.summe(haus)).zeilenende();
+ *         }
+ *     });
+ * </pre>
+ */
+public final class ResultWriter {
+    private static final int PUFFERGROESSE = 64 * 1024;
+    private static final SecureRandom ZUFALL = new SecureRandom();
+
+    private final ByteBuffer puffer = ByteBuffer.allocateDirect(PUFFERGROESSE);
+    private final byte[] ziffern = new byte[20];
+    private ExecutorService executor;
+
+    /**
+     * Produces the content of a result file.
+     */
+    @FunctionalInterface
+    public interface Inhalt {
+        void schreibe(Zeilen zeilen) throws IOException;
+    }
+
+    /**
+     * Writes {@code inhalt} to {@code ziel}, replacing an existing file atomically.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Create a temporary file in the directory of the target, so the final move stays on one file system. It is
+     *     created like any new file of the process, so the result gets the usual permissions instead of the owner-only
+     *     ones of {@link Files#createTempFile}; a replaced target passes its permissions on.</li>
+     *     <li>Encode the rows into the buffer and write it to the channel whenever it is full, and once at the end.
+     *     A target ending in {@code .gz} or {@code .zz} is compressed on the way, see {@link Compression}.</li>
+     *     <li>Move the temporary file over the target atomically; if the file system cannot do that, replace it.</li>
+     *     <li>If anything fails, delete the temporary file and leave the target untouched.</li>
+     * </ol>
+     *
+     * @param ziel   the file to write
+     * @param inhalt the content to write
+     * @throws IOException if the content cannot be written
+     */
+    public synchronized void schreibe(Path ziel, Inhalt inhalt) throws IOException {
+        Path absolut = ziel.toAbsolutePath();
+        Path temp = null;
+        try {
+            FileChannel datei = null;
+            while (datei == null) {
+                temp = absolut.resolveSibling(absolut.getFileName() + "." + Long.toHexString(ZUFALL.nextLong()) + ".tmp");
+                try {
+                    datei = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                } catch (FileAlreadyExistsException e) {
+                    temp = null;
+                }
+            }
+            WritableByteChannel channel;
+            try {
+                channel = Compression.schreiber(absolut, datei);
+            } catch (IOException e) {
+                datei.close();
+                throw e;
+            }
+            try (channel) {
+                puffer.clear();
+                inhalt.schreibe(new Zeilen(channel));
+                leere(channel);
+            }
+            uebernehmeRechte(absolut, temp);
+            try {
+                Files.move(temp, absolut, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolut, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Gives the new file the POSIX permissions of the file it replaces, so a target made readable for other users
+     * stays readable. A new target keeps the default permissions of the process, as with any other new file.
+     */
+    private static void uebernehmeRechte(Path ziel, Path temp) throws IOException {
+        PosixFileAttributeView alt = Files.getFileAttributeView(ziel, PosixFileAttributeView.class);
+        if (alt == null || !Files.exists(ziel)) {
+            return;
+        }
+        Files.setPosixFilePermissions(temp, alt.readAttributes().permissions());
+    }
+
+    /**
+     * Writes {@code inhalt} like {@link #schreibe(Path, Inhalt)} on a background thread. The content is produced
+     * on that thread, so it must only read data that is not changed until the returned future completes.
+     *
+     * @param ziel   the file to write
+     * @param inhalt the content to write
+     * @return a future completing with {@code ziel} once the file is in place, or exceptionally with the
+     *         {@link IOException} that stopped the write
+     */
+    public CompletableFuture<Path> schreibeAsync(Path ziel, Inhalt inhalt) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                schreibe(ziel, inhalt);
+                return ziel;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor());
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            // A single daemon thread keeps writes in submission order and does not keep the JVM alive
+            executor = Executors.newSingleThreadExecutor(aufgabe -> {
+                Thread thread = new Thread(aufgabe, "result-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private void leere(WritableByteChannel channel) throws IOException {
+        puffer.flip();
+        while (puffer.hasRemaining()) {
+            channel.write(puffer);
+        }
+        puffer.clear();
+    }
+
+    /**
+     * Encodes text and numbers as UTF-8 into the buffer of the writer. Instances are only valid inside
+     * {@link Inhalt#schreibe(Zeilen)}.
+     */
+    public final class Zeilen {
+        private final WritableByteChannel channel;
+
+        private Zeilen(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @param text the text to append
+         * @return this
+         * @throws IOException if a full buffer cannot be written
+         */
+        public Zeilen text(String text) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    // Leave the ASCII fast path for the rest of the text
+                    return bytes(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                }
+                platz(1);
+                puffer.put((byte) c);
+            }
+            return this;
+        }
+
+        /**
+         * @param c an ASCII character to append
+         * @return this
+         * @throws IOException if a full buffer cannot be written
+         */
+        public Zeilen zeichen(char c) throws IOException {
+            if (c >= 0x80) {
+                return text(String.valueOf(c));
+            }
+            platz(1);
+            puffer.put((byte) c);
+            return this;
+        }
+
+        /**
+         * Appends the decimal digits of {@code zahl} without creating a string.
+         *
+         * @param zahl the number to append
+         * @return this
+         * @throws IOException if a full buffer cannot be written
+         */
+        public Zeilen zahl(long zahl) throws IOException {
+            if (zahl == Long.MIN_VALUE) {
+                return text(Long.toString(zahl));
+            }
+            platz(ziffern.length);
+            if (zahl < 0) {
+                puffer.put((byte) '-');
+                zahl = -zahl;
+            }
+            int i = ziffern.length;
+            do {
+                ziffern[--i] = (byte) ('0' + zahl % 10);
+                zahl /= 10;
+            } while (zahl != 0);
+            puffer.put(ziffern, i, ziffern.length - i);
+            return this;
+        }
+
+        /**
+         * @return this, after appending a line break
+         * @throws IOException if a full buffer cannot be written
+         */
+        public Zeilen zeilenende() throws IOException {
+            return zeichen('\n');
+        }
+
+        private Zeilen bytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                platz(1);
+                int laenge = Math.min(puffer.remaining(), bytes.length - i);
+                puffer.put(bytes, i, laenge);
+                i += laenge;
+            }
+            return this;
+        }
+
+        private void platz(int bytes) throws IOException {
+            if (puffer.remaining() < bytes) {
+                leere(channel);
+            }
+        }
+    }
+}
@@ -0,0 +1,478 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Per-student or per-teacher point totals for inputs with more distinct names than fit in the heap. Rows are summed
+ * in a hash table as long as its estimated size stays within a memory budget; once the budget is exceeded, the
+ * partial sums are hash-partitioned into {@value #PARTITIONEN} spill files and the table starts over empty. Since
+ * every name always lands in the same partition, each partition can later be summed on its own.
+ *
+ * Reading the totals with {@link #rangfolge(PlatzSink)} finishes the aggregation:
+ * <ol>
+ *     <li>Each spill file is summed in a table of its own and written back as a run sorted best first. A partition
+ *     that still exceeds the budget is partitioned again with a different hash, up to {@value #MAX_EBENE}
+ *     levels deep.</li>
+ *     <li>The sorted runs are merged with a heap, at most {@value #FAN_IN} at a time, so the number of open files
+ *     stays bounded as well.</li>
+ * </ol>
+ * The heap therefore holds the table of at most one budget plus a fixed number of I/O buffers, however large the
+ * input is. If nothing was spilled, the totals are sorted in memory and no file is written. The readers also keep
+ * the names they see in the shared {@link NameInterner}, which stops growing at its own fixed limit, so the heap to
+ * plan for is the budget plus that limit.
+ *
+ * Names are ranked by their total points, and equal totals by the order in which the names first appeared, the same
+ * order as {@link Leaderboard}.
+ *
+ * Example:
+ * <pre>
+ *     try (SpillingAggregator summen = new SpillingAggregator(SpillingAggregator.Spalte.STUDENT, 64L &lt;&lt; 20)) {
+ *         EntryReaders.fuer(path).lese(path, summen);
+ *         app.schreibeCSV("studenten.csv", summen);
+ *     }
+ * </pre>
+ * <p>
+ * An instance is not thread-safe. {@link #close()} deletes the spill files.
+ */
+public final class SpillingAggregator implements EntrySink, Closeable {
+    private static final int PARTITIONEN = 64;
+    private static final int FAN_IN = 64;
+    private static final int MAX_EBENE = 6;
+    private static final int PUFFERGROESSE = 16 * 1024;
+    // Estimated heap use of one name in the table: the map node and its slot, the Summe and the String itself
+    private static final long KOSTEN_PRO_NAME = 112;
+    private static final Comparator<Satz> RANG = (a, b) -> a.punkte != b.punkte
+            ? Long.compare(b.punkte, a.punkte)
+            : Long.compare(a.erste, b.erste);
+
+    /**
+     * The column whose names are summed.
+     */
+    public enum Spalte {
+        STUDENT, LEHRER
+    }
+
+    /**
+     * Receives the totals of {@link #rangfolge(PlatzSink)}.
+     */
+    @FunctionalInterface
+    public interface PlatzSink {
+        void accept(String name, long punkte) throws IOException;
+    }
+
+    private final Spalte spalte;
+    private final long speicherBudget;
+    private final Path basis;
+    private Path verzeichnis;
+    private HashMap<String, Summe> summen = new HashMap<>();
+    private long belegt;
+    private long zeile;
+    private Partitionen partitionen;
+    private final List<Partitionen> offen = new ArrayList<>();
+    private long spills;
+    private int dateien;
+    private boolean gelesen;
+
+    /**
+     * @param spalte         the column to sum
+     * @param speicherBudget the estimated number of heap bytes the totals may take before they are spilled
+     */
+    public SpillingAggregator(Spalte spalte, long speicherBudget) {
+        this(spalte, speicherBudget, null);
+    }
+
+    /**
+     * @param spalte         the column to sum
+     * @param speicherBudget the estimated number of heap bytes the totals may take before they are spilled
+     * @param verzeichnis    the directory to create the spill files in, {@code null} for the default temporary
+     *                       directory
+     */
+    public SpillingAggregator(Spalte spalte, long speicherBudget, Path verzeichnis) {
+        if (speicherBudget <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive: " + speicherBudget);
+        }
+        this.spalte = spalte;
+        this.speicherBudget = speicherBudget;
+        this.basis = verzeichnis;
+    }
+
+    /**
+     * Adds the points of one row to its student or teacher. Rows without a name are not counted.
+     *
+     * @throws UncheckedIOException if the totals exceed the budget and cannot be spilled
+     */
+    @Override
+    public void accept(int id, String studentName, Haus haus, String lehrerName, int punkte) {
+        String name = spalte == Spalte.STUDENT ? studentName : lehrerName;
+        if (name == null) {
+            return;
+        }
+        if (gelesen) {
+            throw new IllegalStateException("The totals have already been read");
+        }
+        zeile++;
+        Summe summe = summen.get(name);
+        if (summe == null) {
+            summe = new Summe(zeile);
+            summen.put(name, summe);
+            belegt += KOSTEN_PRO_NAME + name.length();
+        }
+        summe.punkte += punkte;
+
+        if (belegt > speicherBudget) {
+            try {
+                if (partitionen == null) {
+                    partitionen = new Partitionen(0);
+                }
+                partitionen.schreibe(summen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spills++;
+            summen.clear();
+            belegt = 0;
+        }
+    }
+
+    /**
+     * @param entry the entry to count
+     */
+    public void add(Entry entry) {
+        accept(entry.getId(), entry.getStudentName(), entry.getHaus(), entry.getLehrerName(), entry.getPunkte());
+    }
+
+    /**
+     * Passes all totals to {@code sink}, best first, merging them from the spill files if there are any. The totals
+     * can only be read once.
+     *
+     * @param sink receives each name with its total
+     * @throws IOException if a spill file cannot be read or written, or {@code sink} fails
+     */
+    public void rangfolge(PlatzSink sink) throws IOException {
+        if (gelesen) {
+            throw new IllegalStateException("The totals have already been read");
+        }
+        gelesen = true;
+
+        if (partitionen == null) {
+            List<Satz> saetze = sortiert(summen);
+            summen = new HashMap<>();
+            for (Satz satz : saetze) {
+                sink.accept(satz.name, satz.punkte);
+            }
+            return;
+        }
+
+        partitionen.schreibe(summen);
+        partitionen.schliesse();
+        summen = new HashMap<>();
+        List<Path> laeufe = new ArrayList<>();
+        for (Path datei : partitionen.dateien) {
+            if (datei != null) {
+                aggregiere(datei, 1, laeufe);
+            }
+        }
+
+        // Merge the runs in groups until a single merge can take all of them
+        while (laeufe.size() > FAN_IN) {
+            List<Path> gemischt = new ArrayList<>();
+            for (int i = 0; i < laeufe.size(); i += FAN_IN) {
+                Path lauf = neueDatei();
+                try (DataOutputStream out = ausgabe(lauf)) {
+                    mische(laeufe.subList(i, Math.min(i + FAN_IN, laeufe.size())), satz -> schreibe(out, satz));
+                }
+                gemischt.add(lauf);
+            }
+            laeufe = gemischt;
+        }
+        mische(laeufe, satz -> sink.accept(satz.name, satz.punkte));
+    }
+
+    /**
+     * @return how often a table exceeded the budget and was written to spill files
+     */
+    public long spills() {
+        return spills;
+    }
+
+    /**
+     * Deletes the spill files.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Partitionen p : new ArrayList<>(offen)) {
+            p.schliesse();
+        }
+        if (verzeichnis != null) {
+            try (Stream<Path> pfade = Files.walk(verzeichnis)) {
+                for (Path pfad : (Iterable<Path>) pfade.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(pfad);
+                }
+            }
+            verzeichnis = null;
+        }
+    }
+
+    /**
+     * Sums one spill file into sorted runs.
+     *
+     * Method Logic:
+     * <ol>
+     *     <li>Read the partial sums of the file into a table, keeping the earliest first appearance of each name.</li>
+     *     <li>Whenever the table exceeds the budget, write it to sub-partitions hashed with the level as seed and
+     *     start over empty.</li>
+     *     <li>If no sub-partition was written, sort the table and write it as one run; otherwise sum each
+     *     sub-partition the same way one level deeper.</li>
+     * </ol>
+     * At {@value #MAX_EBENE} levels the table is kept in memory whatever its size, which only happens for names
+     * whose hashes collide on every level.
+     */
+    private void aggregiere(Path datei, int ebene, List<Path> laeufe) throws IOException {
+        HashMap<String, Summe> teil = new HashMap<>();
+        long teilBelegt = 0;
+        Partitionen unter = null;
+        try (DataInputStream in = eingabe(datei)) {
+            Satz satz = new Satz();
+            while (lies(in, satz)) {
+                Summe summe = teil.get(satz.name);
+                if (summe == null) {
+                    summe = new Summe(satz.erste);
+                    teil.put(satz.name, summe);
+                    teilBelegt += KOSTEN_PRO_NAME + satz.name.length();
+                } else {
+                    summe.erste = Math.min(summe.erste, satz.erste);
+                }
+                summe.punkte += satz.punkte;
+
+                if (teilBelegt > speicherBudget && ebene < MAX_EBENE) {
+                    if (unter == null) {
+                        unter = new Partitionen(ebene);
+                    }
+                    unter.schreibe(teil);
+                    spills++;
+                    teil.clear();
+                    teilBelegt = 0;
+                }
+            }
+        }
+        Files.delete(datei);
+
+        if (unter == null) {
+            Path lauf = neueDatei();
+            try (DataOutputStream out = ausgabe(lauf)) {
+                for (Satz s : sortiert(teil)) {
+                    schreibe(out, s);
+                }
+            }
+            laeufe.add(lauf);
+            return;
+        }
+        unter.schreibe(teil);
+        unter.schliesse();
+        teil = null;
+        for (Path unterDatei : unter.dateien) {
+            if (unterDatei != null) {
+                aggregiere(unterDatei, ebene + 1, laeufe);
+            }
+        }
+    }
+
+    /**
+     * Merges sorted runs into one sorted sequence and deletes them. Every name occurs in exactly one run, so no two
+     * records need to be combined.
+     */
+    private void mische(List<Path> laeufe, SatzSink ziel) throws IOException {
+        PriorityQueue<Leser> heap = new PriorityQueue<>(Math.max(1, laeufe.size()),
+                (a, b) -> RANG.compare(a.satz, b.satz));
+        List<Leser> leser = new ArrayList<>(laeufe.size());
+        try {
+            for (Path lauf : laeufe) {
+                Leser l = new Leser(lauf);
+                leser.add(l);
+                if (l.weiter()) {
+                    heap.add(l);
+                }
+            }
+            while (!heap.isEmpty()) {
+                Leser l = heap.poll();
+                ziel.accept(l.satz);
+                if (l.weiter()) {
+                    heap.add(l);
+                }
+            }
+        } finally {
+            for (Leser l : leser) {
+                l.in.close();
+            }
+        }
+        for (Path lauf : laeufe) {
+            Files.deleteIfExists(lauf);
+        }
+    }
+
+    private static List<Satz> sortiert(Map<String, Summe> summen) {
+        List<Satz> saetze = new ArrayList<>(summen.size());
+        for (Map.Entry<String, Summe> eintrag : summen.entrySet()) {
+            saetze.add(new Satz(eintrag.getKey(), eintrag.getValue()));
+        }
+        saetze.sort(RANG);
+        return saetze;
+    }
+
+    /**
+     * Spreads names over {@value #PARTITIONEN} partitions with an FNV-1a hash of their characters. The seed differs
+     * per level, so names sharing a partition on one level are spread again on the next; {@link String#hashCode()}
+     * could not do that, as names colliding in it collide for every seed.
+     */
+    private static int partition(String name, int ebene) {
+        int hash = 0x811c9dc5 ^ (ebene * 0x9e3779b9);
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, PARTITIONEN);
+    }
+
+    private Path neueDatei() throws IOException {
+        if (verzeichnis == null) {
+            verzeichnis = basis == null
+                    ? Files.createTempDirectory("hogwarts-spill")
+                    : Files.createTempDirectory(basis, "hogwarts-spill");
+        }
+        return verzeichnis.resolve("teil-" + (dateien++) + ".bin");
+    }
+
+    private static DataOutputStream ausgabe(Path datei) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(datei), PUFFERGROESSE));
+    }
+
+    private static DataInputStream eingabe(Path datei) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(datei), PUFFERGROESSE));
+    }
+
+    /**
+     * A record is the UTF-8 length and bytes of the name, the partial sum and the row of its first appearance.
+     */
+    private static void schreibe(DataOutputStream out, Satz satz) throws IOException {
+        schreibe(out, satz.name, satz.punkte, satz.erste);
+    }
+
+    private static void schreibe(DataOutputStream out, String name, long punkte, long erste) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeLong(punkte);
+        out.writeLong(erste);
+    }
+
+    private static boolean lies(DataInputStream in, Satz satz) throws IOException {
+        int laenge;
+        try {
+            laenge = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        byte[] bytes = new byte[laenge];
+        in.readFully(bytes);
+        satz.name = new String(bytes, StandardCharsets.UTF_8);
+        satz.punkte = in.readLong();
+        satz.erste = in.readLong();
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface SatzSink {
+        void accept(Satz satz) throws IOException;
+    }
+
+    private static final class Summe {
+        long punkte;
+        long erste;
+
+        Summe(long erste) {
+            this.erste = erste;
+        }
+    }
+
+    private static final class Satz {
+        String name;
+        long punkte;
+        long erste;
+
+        Satz() {
+        }
+
+        Satz(String name, Summe summe) {
+            this.name = name;
+            this.punkte = summe.punkte;
+            this.erste = summe.erste;
+        }
+    }
+
+    /**
+     * One set of spill files, each opened when the first name of its partition is written.
+     */
+    private final class Partitionen {
+        private final int ebene;
+        private final Path[] dateien = new Path[PARTITIONEN];
+        private final DataOutputStream[] ausgaenge = new DataOutputStream[PARTITIONEN];
+
+        Partitionen(int ebene) {
+            this.ebene = ebene;
+            offen.add(this);
+        }
+
+        void schreibe(Map<String, Summe> summen) throws IOException {
+            for (Map.Entry<String, Summe> eintrag : summen.entrySet()) {
+                int i = partition(eintrag.getKey(), ebene);
+                if (ausgaenge[i] == null) {
+                    dateien[i] = neueDatei();
+                    ausgaenge[i] = ausgabe(dateien[i]);
+                }
+                SpillingAggregator.schreibe(ausgaenge[i], eintrag.getKey(), eintrag.getValue().punkte,
+                        eintrag.getValue().erste);
+            }
+        }
+
+        void schliesse() throws IOException {
+            for (int i = 0; i < ausgaenge.length; i++) {
+                if (ausgaenge[i] != null) {
+                    ausgaenge[i].close();
+                    ausgaenge[i] = null;
+                }
+            }
+            offen.remove(this);
+        }
+    }
+
+    /**
+     * Reads one sorted run during a merge.
+     */
+    private static final class Leser {
+        private final DataInputStream in;
+        private final Satz satz = new Satz();
+
+        Leser(Path lauf) throws IOException {
+            in = eingabe(lauf);
+        }
+
+        boolean weiter() throws IOException {
+            return lies(in, satz);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one pipeline stage, such as {@code leseCSV} or {@code schreibeDatei}, summed over all of its runs.
+ * Runs are recorded through {@link HogwartsMetrics#starte(String)}; the counters can be read here, over JMX and in
+ * the {@code --stats} summary of {@link Main}.
+ */
+public final class StageMetrics implements StageMetricsMBean {
+    private final String name;
+    private final LongAdder aufrufe = new LongAdder();
+    private final LongAdder fehler = new LongAdder();
+    private final LongAdder zeilen = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allokiert = new LongAdder();
+    private final LongAdder verworfen = new LongAdder();
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the stage
+     */
+    public String getName() {
+        return name;
+    }
+
+    void erfasse(long zeilen, long bytes, long nanos, long allokiert, long verworfen, boolean fehler) {
+        this.aufrufe.increment();
+        this.zeilen.add(zeilen);
+        this.bytes.add(bytes);
+        this.nanos.add(nanos);
+        this.allokiert.add(allokiert);
+        this.verworfen.add(verworfen);
+        if (fehler) {
+            this.fehler.increment();
+        }
+    }
+
+    void verworfen() {
+        verworfen.increment();
+    }
+
+    @Override
+    public long getAufrufe() {
+        return aufrufe.sum();
+    }
+
+    @Override
+    public long getFehler() {
+        return fehler.sum();
+    }
+
+    @Override
+    public long getVerworfen() {
+        return verworfen.sum();
+    }
+
+    @Override
+    public long getZeilen() {
+        return zeilen.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getZeitMillis() {
+        return nanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getZeilenProSekunde() {
+        long zeit = nanos.sum();
+        return zeit == 0 ? 0 : zeilen.sum() / (zeit / 1e9);
+    }
+
+    @Override
+    public long getAllokierteBytes() {
+        return allokiert.sum();
+    }
+
+    @Override
+    public void zuruecksetzen() {
+        aufrufe.reset();
+        fehler.reset();
+        zeilen.reset();
+        bytes.reset();
+        nanos.reset();
+        allokiert.reset();
+        verworfen.reset();
+    }
+}
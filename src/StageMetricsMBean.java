@@ -0,0 +1,31 @@
+/**
+ * JMX view of the {@link StageMetrics} of one stage, registered as {@code Hogwarts:type=Stage,name=<stage>}.
+ */
+public interface StageMetricsMBean {
+    /** @return how often the stage ran */
+    long getAufrufe();
+
+    /** @return how many runs failed with an exception, e.g. because a row could not be parsed by a strict reader */
+    long getFehler();
+
+    /** @return how many malformed rows were skipped and reported to a {@link Quarantine} by a lenient reader */
+    long getVerworfen();
+
+    /** @return the rows read, queried or written over all runs */
+    long getZeilen();
+
+    /** @return the input bytes read over all runs */
+    long getBytes();
+
+    /** @return the wall time of all runs in milliseconds */
+    double getZeitMillis();
+
+    /** @return the rows per second over all runs */
+    double getZeilenProSekunde();
+
+    /** @return the bytes allocated by the calling thread over all runs */
+    long getAllokierteBytes();
+
+    /** Resets all counters to zero. */
+    void zuruecksetzen();
+}
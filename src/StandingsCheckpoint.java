@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps running house totals for an append-only input file, so each run only parses the rows added since the
+ * previous one. The checkpoint is a small properties file holding the byte offset reached so far, a checksum of the
+ * start of the input and the {@link HausAggregator} values of every house.
+ *
+ * Example Checkpoint:
+ * <pre>
+ * offset=48213
+ * pruefsumme=2841170381
+ * Gryffindor.summe=40
+ * Gryffindor.anzahl=4
+ * Gryffindor.minimum=-15
+ * Gryffindor.maximum=30
+ * ...
+ * </pre>
+ * <p>
+ * Only rows ending in a line break are committed to the checkpoint. A last row without one may still be in the
+ * middle of being written; it is counted in the returned totals but parsed again on the next run. If it cannot be
+ * parsed, it is left out of the totals with a warning on the standard error stream, since an unfinished row and a
+ * malformed one look the same until the line break arrives.
+ * <p>
+ * If the input became shorter than the stored offset, or its first bytes changed, it was rotated or rewritten and
+ * the totals are rebuilt from the beginning. The checkpoint is replaced atomically, so a crash between two runs
+ * never leaves totals that do not match the stored offset.
+ */
+public final class StandingsCheckpoint {
+    private static final int PRUEFBEREICH = 4096;
+
+    private StandingsCheckpoint() {
+    }
+
+    /**
+     * Brings the totals stored in {@code checkpoint} up to date with {@code eingabe}.
+     *
+     * @param eingabe    the input file, which only ever grows by appending
+     * @param parser     the parser matching the format of the input
+     * @param checkpoint the checkpoint file; created if it does not exist
+     * @return the totals over all rows of the input, including a last row without line break
+     * @throws IOException if the input cannot be parsed or the checkpoint cannot be read or written
+     */
+    public static HausAggregator aktualisiere(Path eingabe, DelimitedParser parser, Path checkpoint) throws IOException {
+        HausAggregator punkte = new HausAggregator();
+        long offset = 0;
+
+        if (Files.exists(checkpoint)) {
+            Properties stand = new Properties();
+            try (Reader reader = Files.newBufferedReader(checkpoint)) {
+                stand.load(reader);
+            }
+            long gespeichert = Long.parseLong(stand.getProperty("offset", "0"));
+            boolean gleicheDatei = gespeichert <= Files.size(eingabe)
+                    && Long.parseLong(stand.getProperty("pruefsumme", "-1")) == pruefsumme(eingabe, Math.min(gespeichert, PRUEFBEREICH));
+            if (gleicheDatei) {
+                offset = gespeichert;
+                for (Haus haus : Haus.values()) {
+                    punkte.setze(haus,
+                            Long.parseLong(stand.getProperty(haus + ".summe", "0")),
+                            Long.parseLong(stand.getProperty(haus + ".anzahl", "0")),
+                            Integer.parseInt(stand.getProperty(haus + ".minimum", "0")),
+                            Integer.parseInt(stand.getProperty(haus + ".maximum", "0")));
+                }
+            }
+        }
+
+        offset = parser.parseAb(eingabe, offset, punkte);
+        speichere(checkpoint, offset, pruefsumme(eingabe, Math.min(offset, PRUEFBEREICH)), punkte);
+
+        HausAggregator ergebnis = new HausAggregator().merge(punkte);
+        if (offset < Files.size(eingabe)) {
+            HausAggregator rest = new HausAggregator();
+            try {
+                parser.parseRest(eingabe, offset, rest);
+                ergebnis.merge(rest);
+            } catch (IOException | IllegalArgumentException e) {
+                // the last row may still be being written and is parsed again by the next run, but it may as well be
+                // malformed for good, so it is never left out silently
+                System.err.println("Last row of " + eingabe + " at offset " + offset + " not counted: " + e.getMessage());
+            }
+        }
+        return ergebnis;
+    }
+
+    private static void speichere(Path checkpoint, long offset, long pruefsumme, HausAggregator punkte) throws IOException {
+        Properties stand = new Properties();
+        stand.setProperty("offset", Long.toString(offset));
+        stand.setProperty("pruefsumme", Long.toString(pruefsumme));
+        for (Haus haus : Haus.values()) {
+            stand.setProperty(haus + ".summe", Long.toString(punkte.summe(haus)));
+            stand.setProperty(haus + ".anzahl", Long.toString(punkte.anzahl(haus)));
+            stand.setProperty(haus + ".minimum", Integer.toString(punkte.minimum(haus)));
+            stand.setProperty(haus + ".maximum", Integer.toString(punkte.maximum(haus)));
+        }
+
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            stand.store(writer, "House standings checkpoint");
+        }
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the CRC32 of the first {@code laenge} bytes of the file (fewer if the file is shorter)
+     */
+    static long pruefsumme(Path path, long laenge) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) Math.min(laenge, channel.size()));
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // read until the buffer is full or the file ends
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buf.flip());
+            return crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the house totals and student lookups of a loaded dataset over HTTP. Every index is built once when the
+ * server is created, so a request never touches the entries again: the standings and the per-house lists are
+ * encoded once and sent as they are, and a prefix search is a lookup in a {@link PrefixIndex}. Each request runs on
+ * its own virtual thread.
+ *
+ * Endpoints, all answering {@code text/plain} with one line per result:
+ * <ul>
+ *     <li>{@code GET /standings} - the house totals in the format of {@link HogwartsApp#schreibeDatei(String, List)}</li>
+ *     <li>{@code GET /standings.csv} - the house totals in the format of {@link HogwartsApp#schreibeCSV(String, List)}</li>
+ *     <li>{@code GET /studenten?prefix=He} - the student names starting with the prefix,
+ *     like {@link HogwartsApp#studierendeGrossbuchstaben(char, List)}</li>
+ *     <li>{@code GET /haus/Gryffindor} - the students of a house, like {@link HogwartsApp#griffindorStudierende(List)}</li>
+ * </ul>
+ *
+ * Example:
+ * <pre>
+ *     try (StandingsServer server = new StandingsServer(app.leseCSV("punkte.csv"), new InetSocketAddress(8080))) {
+ *         // curl http://localhost:8080/standings
+ *     }
+ * </pre>
+ * <p>
+ * Responses are small, so without {@code TCP_NODELAY} the body waits for the client's delayed ACK of the headers,
+ * which adds about 40 ms to every request. The JDK server only enables it with the JVM-wide system property
+ * {@code sun.net.httpserver.nodelay}, read once on first use; set it when launching the process, e.g.
+ * {@code java -Dsun.net.httpserver.nodelay=true Main --server}, as {@code Main --server} does.
+ */
+public final class StandingsServer implements Closeable {
+    private static final byte[] NICHT_GEFUNDEN = "Not found\n".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final PrefixIndex studenten;
+    private final byte[] standings;
+    private final byte[] standingsCSV;
+    private final Map<Haus, byte[]> hausStudenten = new EnumMap<>(Haus.class);
+
+    /**
+     * Builds the indexes over {@code entries} and starts serving.
+     *
+     * @param entries the dataset to serve; it is not used after the constructor returns
+     * @param adresse the address to listen on, port {@code 0} picks a free port
+     * @throws IOException if the server cannot be bound
+     */
+    public StandingsServer(List<Entry> entries, InetSocketAddress adresse) throws IOException {
+        HausAggregator punkte = HausAggregator.von(entries.stream());
+        HausIndex haeuser = HausIndex.von(entries);
+        studenten = PrefixIndex.studenten(entries, false);
+
+        StringBuilder text = new StringBuilder();
+        StringBuilder csv = new StringBuilder("Haus,Punkte\n");
+        for (Haus haus : punkte.rangfolge()) {
+            text.append(haus).append('#').append(punkte.summe(haus)).append('\n');
+            csv.append(haus).append(',').append(punkte.summe(haus)).append('\n');
+        }
+        standings = text.toString().getBytes(StandardCharsets.UTF_8);
+        standingsCSV = csv.toString().getBytes(StandardCharsets.UTF_8);
+        for (Haus haus : Haus.values()) {
+            hausStudenten.put(haus, zeilen(haeuser.studierende(haus)));
+        }
+
+        server = HttpServer.create(adresse, 0);
+        server.setExecutor(executor);
+        server.createContext("/standings", this::standings);
+        server.createContext("/studenten", this::studenten);
+        server.createContext("/haus/", this::haus);
+        server.start();
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits for running requests to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void standings(HttpExchange exchange) throws IOException {
+        switch (exchange.getRequestURI().getPath()) {
+            case "/standings": antworte(exchange, 200, standings); break;
+            case "/standings.csv": antworte(exchange, 200, standingsCSV); break;
+            default: antworte(exchange, 404, NICHT_GEFUNDEN);
+        }
+    }
+
+    private void studenten(HttpExchange exchange) throws IOException {
+        String prefix = parameter(exchange.getRequestURI().getRawQuery(), "prefix");
+        if (prefix == null) {
+            antworte(exchange, 400, "Missing parameter: prefix\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        antworte(exchange, 200, zeilen(studenten.suche(prefix)));
+    }
+
+    private void haus(HttpExchange exchange) throws IOException {
+        String name = exchange.getRequestURI().getPath().substring("/haus/".length());
+        for (Haus haus : Haus.values()) {
+            if (haus.name().equalsIgnoreCase(name)) {
+                antworte(exchange, 200, hausStudenten.get(haus));
+                return;
+            }
+        }
+        antworte(exchange, 404, NICHT_GEFUNDEN);
+    }
+
+    private static void antworte(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String paar : query.split("&")) {
+            int gleich = paar.indexOf('=');
+            String schluessel = gleich < 0 ? paar : paar.substring(0, gleich);
+            if (schluessel.equals(name)) {
+                return gleich < 0 ? "" : URLDecoder.decode(paar.substring(gleich + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] zeilen(Iterable<String> namen) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String name : namen) {
+            out.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Parses and converts the award timestamps of the {@code zeitpunkt} field. Readers hand a timestamp to an
+ * {@link EntrySink} as a plain {@code long}, the seconds since {@code 1970-01-01T00:00} of the local date and time
+ * written in the export, so a row with a timestamp still creates no objects in {@link DelimitedParser}. Rows without
+ * a timestamp carry {@link EntrySink#KEIN_ZEITPUNKT}.
+ *
+ * Accepted are ISO-8601 local dates and date-times, with a {@code T} or a space between date and time:
+ * <pre>
+ *     2024-09-01
+ *     2024-09-01T10:15
+ *     2024-09-01 10:15:30
+ *     2024-09-01T10:15:30.250      (fractions of a second are dropped)
+ * </pre>
+ * An empty value means no timestamp.
+ */
+public final class Timestamps {
+    private static final int SEKUNDEN_PRO_TAG = 86_400;
+
+    private Timestamps() {
+    }
+
+    /**
+     * @param text  the characters holding the timestamp
+     * @param start the index of the first character
+     * @param ende  the index behind the last character
+     * @return the timestamp in seconds, or {@link EntrySink#KEIN_ZEITPUNKT} for an empty value
+     * @throws IllegalArgumentException if the value is not a valid date or date-time
+     */
+    public static long parse(CharSequence text, int start, int ende) {
+        if (start == ende) {
+            return EntrySink.KEIN_ZEITPUNKT;
+        }
+        int laenge = ende - start;
+        if ((laenge != 10 && laenge < 16) || !trenner(text, start, 4, '-') || !trenner(text, start, 7, '-')) {
+            throw ungueltig(text, start, ende);
+        }
+        int jahr = zahl(text, start, 0, 4, ende);
+        int monat = zahl(text, start, 5, 2, ende);
+        int tag = zahl(text, start, 8, 2, ende);
+        if (monat < 1 || monat > 12 || tag < 1 || tag > tageImMonat(jahr, monat)) {
+            throw ungueltig(text, start, ende);
+        }
+
+        int sekunden = 0;
+        if (laenge > 10) {
+            char t = text.charAt(start + 10);
+            if ((t != 'T' && t != ' ') || !trenner(text, start, 13, ':')) {
+                throw ungueltig(text, start, ende);
+            }
+            int stunde = zahl(text, start, 11, 2, ende);
+            int minute = zahl(text, start, 14, 2, ende);
+            int sekunde = 0;
+            if (laenge > 16) {
+                if (laenge < 19 || !trenner(text, start, 16, ':')) {
+                    throw ungueltig(text, start, ende);
+                }
+                sekunde = zahl(text, start, 17, 2, ende);
+                if (laenge > 19) {
+                    // fractions of a second are accepted but not kept
+                    if (text.charAt(start + 19) != '.' || laenge == 20) {
+                        throw ungueltig(text, start, ende);
+                    }
+                    zahl(text, start, 20, laenge - 20, ende);
+                }
+            }
+            if (stunde > 23 || minute > 59 || sekunde > 59) {
+                throw ungueltig(text, start, ende);
+            }
+            sekunden = stunde * 3600 + minute * 60 + sekunde;
+        }
+        return epochTag(jahr, monat, tag) * SEKUNDEN_PRO_TAG + sekunden;
+    }
+
+    /**
+     * @param text the timestamp, may be {@code null}
+     * @return the timestamp in seconds, or {@link EntrySink#KEIN_ZEITPUNKT} for {@code null} or an empty value
+     * @throws IllegalArgumentException if the value is not a valid date or date-time
+     */
+    public static long parse(String text) {
+        return text == null ? EntrySink.KEIN_ZEITPUNKT : parse(text, 0, text.length());
+    }
+
+    /**
+     * @param zeitpunkt a timestamp, may be {@code null}
+     * @return the timestamp in seconds, or {@link EntrySink#KEIN_ZEITPUNKT} for {@code null}
+     */
+    public static long sekunden(LocalDateTime zeitpunkt) {
+        return zeitpunkt == null ? EntrySink.KEIN_ZEITPUNKT : zeitpunkt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * @param sekunden a timestamp in seconds, or {@link EntrySink#KEIN_ZEITPUNKT}
+     * @return the timestamp as a local date-time, or {@code null} for {@link EntrySink#KEIN_ZEITPUNKT}
+     */
+    public static LocalDateTime zeitpunkt(long sekunden) {
+        return sekunden == EntrySink.KEIN_ZEITPUNKT ? null : LocalDateTime.ofEpochSecond(sekunden, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param sekunden a timestamp in seconds
+     * @return the number of the day of the timestamp, counted like {@link java.time.LocalDate#toEpochDay()}
+     */
+    public static long tag(long sekunden) {
+        return Math.floorDiv(sekunden, SEKUNDEN_PRO_TAG);
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to a date of the proleptic Gregorian calendar, without creating a
+     * {@link java.time.LocalDate}: the year is shifted to start in March, so the leap day is the last day of the
+     * year, and split into 400-year cycles of 146097 days.
+     */
+    private static long epochTag(int jahr, int monat, int tag) {
+        int j = monat <= 2 ? jahr - 1 : jahr;
+        int zyklus = Math.floorDiv(j, 400);
+        int jahrImZyklus = j - zyklus * 400;
+        int tagImJahr = (153 * (monat > 2 ? monat - 3 : monat + 9) + 2) / 5 + tag - 1;
+        int tagImZyklus = jahrImZyklus * 365 + jahrImZyklus / 4 - jahrImZyklus / 100 + tagImJahr;
+        return zyklus * 146_097L + tagImZyklus - 719_468;
+    }
+
+    private static int tageImMonat(int jahr, int monat) {
+        switch (monat) {
+            case 2: return (jahr % 4 == 0 && jahr % 100 != 0) || jahr % 400 == 0 ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    private static boolean trenner(CharSequence text, int start, int index, char trenner) {
+        return text.charAt(start + index) == trenner;
+    }
+
+    private static int zahl(CharSequence text, int start, int index, int ziffern, int ende) {
+        int wert = 0;
+        for (int i = start + index; i < start + index + ziffern; i++) {
+            int ziffer = text.charAt(i) - '0';
+            if (ziffer < 0 || ziffer > 9) {
+                throw ungueltig(text, start, ende);
+            }
+            // only the fraction of a second can be long enough to overflow, and its value is not used
+            wert = wert * 10 + ziffer;
+        }
+        return wert;
+    }
+
+    private static IllegalArgumentException ungueltig(CharSequence text, int start, int ende) {
+        return new IllegalArgumentException("Not a timestamp: \"" + text.subSequence(start, ende) + "\"");
+    }
+}
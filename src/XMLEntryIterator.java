@@ -0,0 +1,430 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams {@link Entry} objects from an {@code <entries>} document in a single pass over its characters.
+ * Tags are scanned directly in a reusable buffer and every child element of an {@code <entry>} is dispatched on
+ * its tag name, so neither the line layout nor the whitespace between and inside the tags matters.
+ * Tag names are matched in place and plain values are parsed straight from the buffer; only the two names of an
+ * entry become new strings.
+ *
+ * Example Input (equivalent to the layout documented on {@link HogwartsApp#leseXML(String)}):
+ * <pre>
+ * &lt;entries&gt;&lt;entry&gt;&lt;id&gt;1&lt;/id&gt;&lt;studentName&gt;Harry Potter&lt;/studentName&gt;
+ *   &lt;haus&gt; Gryffindor &lt;/haus&gt;&lt;lehrerName&gt;Remus Lupin&lt;/lehrerName&gt;&lt;punkte&gt;10&lt;/punkte&gt;&lt;/entry&gt;&lt;/entries&gt;
+ * </pre>
+ * <p>
+ * Supported are the XML declaration, comments, processing instructions, a {@code DOCTYPE} without internal subset,
+ * attributes (which are ignored), empty elements, {@code CDATA} sections and the predefined and numeric character
+ * references. Values are trimmed and unknown elements inside an {@code <entry>} are skipped. An optional
+ * {@code <zeitpunkt>} holds the time of the award, e.g. {@code 2024-09-02T10:15}, see {@link Timestamps}.
+ * I/O and syntax errors that occur while iterating are thrown as {@link UncheckedIOException}.
+ * <p>
+ * Each {@code <entry>} is read completely before {@link #hasNext()} returns, so a lenient iterator created with a
+ * {@link Quarantine} can skip an entry with an invalid {@code id}, {@code punkte} or {@code haus}, as well as an
+ * entry cut off by the end of the file.
+ */
+public final class XMLEntryIterator extends CharBufferScanner implements Iterator<Entry> {
+    private static final int START = 0;
+    private static final int ENDE = 1;
+    private static final int LEER = 2;
+    private static final int KEIN_TAG = -1;
+
+    private static final String[] TAGS = {"entries", "entry", "id", "studentName", "haus", "lehrerName", "punkte", "zeitpunkt"};
+    private static final int ENTRIES = 0;
+    private static final int ENTRY = 1;
+    private static final int ID = 2;
+    private static final int STUDENT_NAME = 3;
+    private static final int HAUS = 4;
+    private static final int LEHRER_NAME = 5;
+    private static final int PUNKTE = 6;
+    private static final int ZEITPUNKT = 7;
+    private static final int UNBEKANNT = -1;
+
+    private int tag;
+    private String unbekannterTag;
+    /** The character offset of the {@code <} of the last tag read by {@link #naechstesTag()}. */
+    private long tagAnfang;
+
+    private boolean ende;
+    private Entry naechster;
+
+    /**
+     * Reads up to the root element and checks that it is {@code <entries>}.
+     *
+     * @param reader the document source; it is not closed by this iterator
+     * @throws IOException if the document cannot be read or has a different root element
+     */
+    public XMLEntryIterator(Reader reader) throws IOException {
+        this(reader, null, null);
+    }
+
+    /**
+     * Lenient variant of {@link #XMLEntryIterator(Reader)}: entries with invalid values or mismatched end tags and
+     * an entry cut off by the end of the input are reported to {@code quarantine} and skipped.
+     *
+     * @param reader     the document source; it is not closed by this iterator
+     * @param datei      the file being read, reported to the quarantine
+     * @param quarantine receives the skipped entries, or {@code null} to fail on the first invalid value
+     * @throws IOException if the document cannot be read or has a different root element
+     */
+    public XMLEntryIterator(Reader reader, Path datei, Quarantine quarantine) throws IOException {
+        super(reader, "XML", datei, quarantine);
+        if (naechstesTag() != START || tag != ENTRIES) {
+            throw fehler("expected <entries> but found <" + tagName() + ">");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (naechster == null && !ende) {
+                long anfang = basis + pos;
+                Entry entry;
+                try {
+                    int typ = naechstesTag();
+                    if (typ == ENDE && tag == ENTRIES) {
+                        ende = true;
+                        continue;
+                    }
+                    if (typ == ENDE || tag != ENTRY) {
+                        throw fehler("expected <entry> but found <" + (typ == ENDE ? "/" : "") + tagName() + ">");
+                    }
+                    anfang = tagAnfang;
+                    entry = typ == LEER ? new Entry(0,null,null,null,0) : leseEntry();
+                } catch (IOException e) {
+                    if (!abgeschnitten(anfang, e)) {
+                        throw e;
+                    }
+                    ende = true;
+                    continue;
+                }
+                if (!quarantaeniert(anfang)) {
+                    naechster = entry;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return naechster != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = naechster;
+        naechster = null;
+        return entry;
+    }
+
+    /**
+     * Reads the children of an {@code <entry>} after its start tag, up to and including its end tag.
+     */
+    private Entry leseEntry() throws IOException {
+        Entry entry = new Entry(0,null,null,null,0);
+        int typ;
+        while ((typ = naechstesTag()) != ENDE) {
+            if (typ == LEER) {
+                continue;
+            }
+            switch (tag) {
+                case ID: {
+                    leseText();
+                    entry.setId(wertAlsInt());
+                    break;
+                }
+                case STUDENT_NAME: {
+                    leseText();
+                    entry.setStudentName(wertAlsString());
+                    break;
+                }
+                case HAUS: {
+                    leseText();
+                    entry.setHaus(wertAlsHaus());
+                    break;
+                }
+                case LEHRER_NAME: {
+                    leseText();
+                    entry.setLehrerName(wertAlsString());
+                    break;
+                }
+                case PUNKTE: {
+                    leseText();
+                    entry.setPunkte(wertAlsInt());
+                    break;
+                }
+                case ZEITPUNKT: {
+                    leseText();
+                    entry.setZeitpunkt(wertAlsZeitpunkt());
+                    break;
+                }
+                default: {
+                    ueberspringe();
+                }
+            }
+            marke = -1;
+        }
+        if (tag != ENTRY) {
+            throw fehler("expected </entry> but found </" + tagName() + ">");
+        }
+        return entry;
+    }
+
+    /**
+     * Skips text, comments and processing instructions up to the next element tag.
+     *
+     * @return {@link #START}, {@link #ENDE} or {@link #LEER}; the tag itself is in {@link #tag}
+     */
+    private int naechstesTag() throws IOException {
+        while (true) {
+            int i = pos;
+            while (i < limit && buf[i] != '<') {
+                i++;
+            }
+            pos = i;
+            if (i == limit) {
+                if (!fuelle(1)) {
+                    throw fehler("unexpected end of file");
+                }
+                continue;
+            }
+            tagAnfang = basis + pos;
+            pos++;
+
+            int typ = leseTag();
+            if (typ != KEIN_TAG) {
+                return typ;
+            }
+        }
+    }
+
+    /**
+     * Reads the markup following a {@code <}.
+     *
+     * @return the element tag type, or {@link #KEIN_TAG} for comments, processing instructions and declarations
+     */
+    private int leseTag() throws IOException {
+        int c = lese();
+        if (c == '?') {
+            ueberspringeBis("?>");
+            return KEIN_TAG;
+        }
+        if (c == '!') {
+            ueberspringeBis(folgt("--") ? "-->" : ">");
+            return KEIN_TAG;
+        }
+
+        int typ = START;
+        if (c == '/') {
+            typ = ENDE;
+            c = lese();
+        }
+
+        boolean eigeneMarke = marke < 0;
+        if (eigeneMarke) {
+            marke = pos - 1;
+        }
+        int nameStart = pos - 1 - marke;
+        while (c > ' ' && c != '>' && c != '/') {
+            int i = pos;
+            while (i < limit && (c = buf[i]) > ' ' && c != '>' && c != '/') {
+                i++;
+            }
+            pos = i;
+            c = lese();
+        }
+        if (c < 0) {
+            throw fehler("unexpected end of file in tag");
+        }
+        tag = erkenne(marke + nameStart, pos - 1);
+        if (eigeneMarke) {
+            marke = -1;
+        }
+
+        // attributes are ignored, but quoted values may contain '>' or '/'
+        int vorher = 0;
+        while (c != '>') {
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                while ((c = lese()) != quote) {
+                    if (c < 0) {
+                        throw fehler("unexpected end of file in tag");
+                    }
+                }
+            }
+            vorher = c;
+            c = lese();
+            if (c < 0) {
+                throw fehler("unexpected end of file in tag");
+            }
+        }
+        return vorher == '/' && typ == START ? LEER : typ;
+    }
+
+    private int erkenne(int start, int ende) {
+        int laenge = ende - start;
+        // the known tag names all differ in length
+        int kandidat;
+        switch (laenge) {
+            case 7: kandidat = ENTRIES; break;
+            case 5: kandidat = ENTRY; break;
+            case 2: kandidat = ID; break;
+            case 11: kandidat = STUDENT_NAME; break;
+            case 4: kandidat = HAUS; break;
+            case 10: kandidat = LEHRER_NAME; break;
+            case 6: kandidat = PUNKTE; break;
+            case 9: kandidat = ZEITPUNKT; break;
+            default: kandidat = UNBEKANNT;
+        }
+        if (kandidat != UNBEKANNT && gleich(TAGS[kandidat], buf, start)) {
+            return kandidat;
+        }
+        unbekannterTag = new String(buf, start, laenge);
+        return UNBEKANNT;
+    }
+
+    /**
+     * Reads the character content of the element whose start tag was just read, up to and including its end tag.
+     * Plain text stays in the buffer; text containing references or {@code CDATA} is decoded into {@link #text}.
+     * The value is left in {@link #wert} between {@link #wertStart} and {@link #wertEnde}.
+     */
+    private void leseText() throws IOException {
+        int offen = tag;
+        marke = pos;
+        int c;
+        while (true) {
+            int i = pos;
+            while (i < limit && buf[i] != '<' && buf[i] != '&') {
+                i++;
+            }
+            pos = i;
+            if (i < limit) {
+                c = buf[pos++];
+                break;
+            }
+            if (!fuelle(1)) {
+                throw fehler("unexpected end of file in text");
+            }
+        }
+
+        if (c == '<' && (pos == limit ? fuelle(1) : true) && buf[pos] == '/') {
+            int wertLaenge = pos - 1 - marke;
+            if (leseTag() != ENDE) {
+                throw fehler("expected end tag");
+            }
+            pruefeEndTag(offen);
+            wert = buf;
+            wertStart = marke;
+            wertEnde = marke + wertLaenge;
+            return;
+        }
+
+        text.setLength(0);
+        text.append(buf, marke, pos - 1 - marke);
+        marke = -1;
+        while (true) {
+            if (c < 0) {
+                throw fehler("unexpected end of file in text");
+            }
+            if (c == '&') {
+                leseReferenz();
+            } else if (c != '<') {
+                text.append((char) c);
+            } else if (folgt("![CDATA[")) {
+                while (!folgt("]]>")) {
+                    c = lese();
+                    if (c < 0) {
+                        throw fehler("unexpected end of file in CDATA section");
+                    }
+                    text.append((char) c);
+                }
+            } else {
+                int typ = leseTag();
+                if (typ == ENDE) {
+                    pruefeEndTag(offen);
+                    break;
+                }
+                if (typ != KEIN_TAG) {
+                    throw fehler("unexpected element <" + tagName() + "> in text");
+                }
+            }
+            c = lese();
+        }
+
+        wertAusText();
+    }
+
+    /**
+     * Checks that the end tag just read closes the element {@code offen}, so {@code <id>1</punkte>} is rejected.
+     * The tag itself was read completely, so a lenient iterator only skips the entry and continues.
+     */
+    private void pruefeEndTag(int offen) throws IOException {
+        if (tag != offen) {
+            lehneAb("expected </" + TAGS[offen] + "> but found </" + tagName() + ">");
+        }
+    }
+
+    private void leseReferenz() throws IOException {
+        int start = text.length();
+        int c;
+        while ((c = lese()) != ';') {
+            if (c < 0 || text.length() - start > 10) {
+                throw fehler("unterminated character reference");
+            }
+            text.append((char) c);
+        }
+
+        String referenz = text.substring(start);
+        text.setLength(start);
+        switch (referenz) {
+            case "amp": text.append('&'); break;
+            case "lt": text.append('<'); break;
+            case "gt": text.append('>'); break;
+            case "quot": text.append('"'); break;
+            case "apos": text.append('\''); break;
+            default: {
+                try {
+                    if (referenz.startsWith("#x")) {
+                        text.appendCodePoint(Integer.parseInt(referenz.substring(2), 16));
+                    } else if (referenz.startsWith("#")) {
+                        text.appendCodePoint(Integer.parseInt(referenz.substring(1)));
+                    } else {
+                        throw fehler("unknown entity &" + referenz + ";");
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw fehler("invalid character reference &" + referenz + ";");
+                }
+            }
+        }
+    }
+
+    private void ueberspringe() throws IOException {
+        int tiefe = 1;
+        while (tiefe > 0) {
+            int typ = naechstesTag();
+            if (typ == START) {
+                tiefe++;
+            } else if (typ == ENDE) {
+                tiefe--;
+            }
+        }
+    }
+
+    private void ueberspringeBis(String ende) throws IOException {
+        while (!folgt(ende)) {
+            if (lese() < 0) {
+                throw fehler("unexpected end of file, expected " + ende);
+            }
+        }
+    }
+
+    private String tagName() {
+        return tag == UNBEKANNT ? unbekannterTag : TAGS[tag];
+    }
+}
@@ -0,0 +1,373 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Regression checks for the readers and aggregators, run as a plain main class like the benchmarks in {@code bench}.
+ *
+ * The golden files in {@code test/golden} hold the expected output of:
+ * <ul>
+ *     <li>every sample export in {@code src} ({@code punkte.csv}, {@code .tsv}, {@code .txt}, {@code .json} and
+ *     {@code .xml}): the entries read with {@link HogwartsApp#lese(String)} and the result written by
+ *     {@link HogwartsApp#schreibeDatei(String, List)}. Every format-specific reader, its streaming, parallel and
+ *     columnar variants and a round trip through an {@link EntrySnapshot} must return the same entries.</li>
+ *     <li>the broken exports in {@code test/eingabe}: the error of a strict read, the entries and the
+ *     {@link Quarantine} file of a lenient read, the failure once the error budget is exceeded and the totals and
+ *     quarantined rows of {@link DirectoryIngestion} over the whole directory.</li>
+ * </ul>
+ * {@link PeriodAggregator} and {@link SpillingAggregator} are checked against a brute-force computation over random
+ * rows with a fixed seed instead.
+ *
+ * Usage, from the root of the repository:
+ * <pre>
+ *     javac -d out src/*.java test/*.java
+ *     java -cp out GoldenFileTest                  # compare, exits with 1 if a check fails
+ *     java -cp out GoldenFileTest --aktualisiere   # rewrite the golden files after an intended change
+ * </pre>
+ */
+public final class GoldenFileTest {
+    private static final Path BEISPIELE = Path.of("src");
+    private static final Path EINGABE = Path.of("test", "eingabe");
+    private static final Path GOLDEN = Path.of("test", "golden");
+
+    private final HogwartsApp app = new HogwartsApp();
+    private final boolean aktualisiere;
+    private final Path temp;
+    private int fehlgeschlagen;
+
+    private GoldenFileTest(boolean aktualisiere, Path temp) {
+        this.aktualisiere = aktualisiere;
+        this.temp = temp;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path temp = Files.createTempDirectory("hogwarts-test");
+        GoldenFileTest test = new GoldenFileTest(List.of(args).contains("--aktualisiere"), temp);
+        try {
+            test.beispiel("punkte.csv", p -> List.of(
+                    () -> test.app.leseCSV(p),
+                    () -> liste(test.app.leseCSVStream(p)),
+                    () -> test.app.leseCSVParallel(p, 3),
+                    () -> zeilen(test.app.leseCSVTabelle(p))));
+            test.beispiel("punkte.tsv", p -> List.of(
+                    () -> test.app.leseTSV(p),
+                    () -> liste(test.app.leseTSVStream(p)),
+                    () -> test.app.leseTSVParallel(p, 3),
+                    () -> zeilen(test.app.leseTSVTabelle(p))));
+            test.beispiel("punkte.txt", p -> List.of(
+                    () -> test.app.leseTSV(p),
+                    () -> zeilen(test.app.leseTSVTabelle(p))));
+            test.beispiel("punkte.json", p -> List.of(
+                    () -> test.app.leseJSON(p),
+                    () -> liste(test.app.leseJSONStream(p)),
+                    () -> zeilen(test.app.leseJSONTabelle(p))));
+            test.beispiel("punkte.xml", p -> List.of(
+                    () -> test.app.leseXML(p),
+                    () -> liste(test.app.leseXMLStream(p)),
+                    () -> zeilen(test.app.leseXMLTabelle(p))));
+
+            test.quarantaene("kaputt.csv");
+            test.quarantaene("kaputt.json");
+            test.quarantaene("kaputt.xml");
+            test.verzeichnis();
+
+            test.zeitraeume();
+            test.summen();
+        } finally {
+            try (var dateien = Files.list(temp)) {
+                for (Path datei : (Iterable<Path>) dateien::iterator) {
+                    Files.delete(datei);
+                }
+            }
+            Files.delete(temp);
+        }
+
+        if (test.fehlgeschlagen > 0) {
+            System.out.println(test.fehlgeschlagen + " checks failed");
+            System.exit(1);
+        }
+        System.out.println("All checks passed");
+    }
+
+    /**
+     * The readers to compare with {@link HogwartsApp#lese(String)} for one sample file.
+     */
+    @FunctionalInterface
+    private interface Leser {
+        List<Leseart> fuer(String path);
+    }
+
+    @FunctionalInterface
+    private interface Leseart {
+        List<Entry> lese() throws IOException;
+    }
+
+    /**
+     * Compares the entries and the result of a sample export with its golden file, and every other reader of the
+     * format with {@link HogwartsApp#lese(String)}.
+     */
+    private void beispiel(String name, Leser leser) throws IOException {
+        String path = BEISPIELE.resolve(name).toString();
+        List<Entry> entries = app.lese(path);
+
+        StringBuilder text = new StringBuilder("# lese\n");
+        for (Entry entry : entries) {
+            text.append(zeile(entry)).append('\n');
+        }
+        Path ergebnis = temp.resolve("ergebnis.txt");
+        app.schreibeDatei(ergebnis.toString(), entries);
+        text.append("# schreibeDatei\n").append(Files.readString(ergebnis));
+        vergleiche(name, text.toString());
+
+        String erwartet = zeilen(entries);
+        List<Leseart> varianten = new ArrayList<>(leser.fuer(path));
+        varianten.add(() -> {
+            Path snapshot = temp.resolve("punkte.hgws");
+            app.schreibeSnapshot(snapshot.toString(), entries);
+            List<Entry> gelesen = new ArrayList<>();
+            app.leseSnapshot(snapshot.toString()).forEach(EntrySink.in(gelesen));
+            return gelesen;
+        });
+        for (int i = 0; i < varianten.size(); i++) {
+            String ist = zeilen(varianten.get(i).lese());
+            pruefe(name + " reader " + (i + 1) + " of " + varianten.size(), erwartet.equals(ist),
+                    "returned\n" + ist + "instead of\n" + erwartet);
+        }
+    }
+
+    /**
+     * Reads a broken export strictly, leniently and with an error budget of one row.
+     */
+    private void quarantaene(String name) throws IOException {
+        String path = EINGABE.resolve(name).toString();
+        StringBuilder text = new StringBuilder("# strict\n");
+        try {
+            text.append(zeilen(app.lese(path))).append("no error\n");
+        } catch (IOException | RuntimeException e) {
+            text.append(fehler(e)).append('\n');
+        }
+
+        Path datei = temp.resolve("quarantaene.tsv");
+        text.append("# lenient\n");
+        Quarantine quarantine = new Quarantine(datei, Long.MAX_VALUE);
+        try {
+            text.append(zeilen(app.lese(path, quarantine)));
+        } finally {
+            quarantine.close();
+        }
+        text.append("# quarantine, ").append(quarantine.anzahl()).append(" rows\n");
+        if (Files.exists(datei)) {
+            text.append(Files.readString(datei));
+        }
+
+        text.append("# error budget 1\n");
+        try (Quarantine budget = new Quarantine(datei, 1)) {
+            text.append(zeilen(app.lese(path, budget))).append("no error\n");
+        } catch (IOException | RuntimeException e) {
+            text.append(fehler(e)).append('\n');
+        }
+        Files.deleteIfExists(datei);
+        vergleiche(name, text.toString());
+    }
+
+    /**
+     * Aggregates the whole input directory in parallel with one shared quarantine. The quarantined rows are sorted,
+     * since the files are read concurrently.
+     */
+    private void verzeichnis() throws IOException {
+        Path datei = temp.resolve("quarantaene.tsv");
+        StringBuilder text = new StringBuilder("# totals\n");
+        Quarantine quarantine = new Quarantine(datei, Long.MAX_VALUE);
+        HausAggregator punkte;
+        try {
+            punkte = DirectoryIngestion.aggregiere(EINGABE, p -> true, 4, quarantine);
+        } finally {
+            quarantine.close();
+        }
+        for (Haus haus : punkte.rangfolge()) {
+            text.append(haus).append(' ').append(punkte.summe(haus)).append(' ').append(punkte.anzahl(haus)).append('\n');
+        }
+        List<String> zeilen = new ArrayList<>(Files.readAllLines(datei, StandardCharsets.UTF_8));
+        Collections.sort(zeilen.subList(1, zeilen.size()));
+        text.append("# quarantine, ").append(quarantine.anzahl()).append(" rows\n");
+        for (String zeile : zeilen) {
+            text.append(zeile).append('\n');
+        }
+        Files.deleteIfExists(datei);
+        vergleiche("verzeichnis", text.toString());
+    }
+
+    /**
+     * Compares {@link PeriodAggregator#stand(LocalDate, LocalDate)} and the weekly buckets with sums over the raw
+     * awards, for random ranges across two school years.
+     */
+    private void zeitraeume() {
+        Random zufall = new Random(42);
+        LocalDate anfang = LocalDate.of(2023, 8, 1);
+        int tage = 2 * 366;
+        Haus[] haeuser = Haus.values();
+        List<long[]> awards = new ArrayList<>();
+        PeriodAggregator verlauf = new PeriodAggregator();
+        for (int i = 0; i < 20_000; i++) {
+            long tag = anfang.toEpochDay() + zufall.nextInt(tage);
+            long zeitpunkt = tag * 86_400 + zufall.nextInt(86_400);
+            int haus = zufall.nextInt(haeuser.length);
+            int punkte = zufall.nextInt(101) - 30;
+            verlauf.add(haeuser[haus], punkte, zeitpunkt);
+            awards.add(new long[] {tag, haus, punkte});
+        }
+        verlauf.add(haeuser[0], 1000, EntrySink.KEIN_ZEITPUNKT);
+
+        int abweichungen = 0;
+        for (int i = 0; i < 500; i++) {
+            LocalDate von = anfang.plusDays(zufall.nextInt(tage));
+            LocalDate bis = von.plusDays(zufall.nextInt(400));
+            if (!gleich(verlauf.stand(von, bis), awards, von, bis)) {
+                abweichungen++;
+            }
+        }
+        for (Map.Entry<LocalDate, HausAggregator> woche
+                : verlauf.verlauf(PeriodAggregator.Periode.WOCHE, anfang, anfang.plusDays(tage)).entrySet()) {
+            if (woche.getKey().getDayOfWeek() != java.time.DayOfWeek.MONDAY
+                    || !gleich(woche.getValue(), awards, woche.getKey(), woche.getKey().plusDays(7))) {
+                abweichungen++;
+            }
+        }
+        pruefe("PeriodAggregator ranges and weeks", abweichungen == 0, abweichungen + " totals differ");
+        pruefe("PeriodAggregator awards without timestamp", verlauf.ohneZeitpunkt().summe(haeuser[0]) == 1000,
+                "expected 1000 but got " + verlauf.ohneZeitpunkt().summe(haeuser[0]));
+    }
+
+    private static boolean gleich(HausAggregator stand, List<long[]> awards, LocalDate von, LocalDate bis) {
+        long[] summen = new long[Haus.values().length];
+        for (long[] award : awards) {
+            if (award[0] >= von.toEpochDay() && award[0] < bis.toEpochDay()) {
+                summen[(int) award[1]] += award[2];
+            }
+        }
+        for (Haus haus : Haus.values()) {
+            if (stand.summe(haus) != summen[haus.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the ranking of {@link SpillingAggregator} with totals kept in memory, once without and once with
+     * spilling over several partition levels.
+     */
+    private void summen() throws IOException {
+        Random zufall = new Random(7);
+        List<String> namen = new ArrayList<>();
+        List<Integer> punkte = new ArrayList<>();
+        for (int i = 0; i < 60_000; i++) {
+            // few points over many names, so equal totals and the tie order are exercised as well
+            namen.add("Student " + zufall.nextInt(15_000));
+            punkte.add(zufall.nextInt(11) - 3);
+        }
+
+        Map<String, Long> summen = new LinkedHashMap<>();
+        for (int i = 0; i < namen.size(); i++) {
+            summen.merge(namen.get(i), (long) punkte.get(i), Long::sum);
+        }
+        List<Map.Entry<String, Long>> rangfolge = new ArrayList<>(summen.entrySet());
+        // stable, so equal totals keep the order in which the names first appeared
+        rangfolge.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        StringBuilder erwartet = new StringBuilder();
+        for (Map.Entry<String, Long> platz : rangfolge) {
+            erwartet.append(platz.getKey()).append(',').append(platz.getValue()).append('\n');
+        }
+
+        for (long budget : new long[] {64L << 20, 16 << 10}) {
+            StringBuilder ist = new StringBuilder();
+            long spills;
+            try (SpillingAggregator aggregator = new SpillingAggregator(SpillingAggregator.Spalte.STUDENT, budget, temp)) {
+                for (int i = 0; i < namen.size(); i++) {
+                    aggregator.accept(i, namen.get(i), Haus.Gryffindor, "Lehrer", punkte.get(i));
+                }
+                aggregator.rangfolge((name, summe) -> ist.append(name).append(',').append(summe).append('\n'));
+                spills = aggregator.spills();
+            }
+            pruefe("SpillingAggregator with a budget of " + budget + " bytes (" + spills + " spills)",
+                    erwartet.toString().contentEquals(ist), "the ranking differs from the totals kept in memory");
+        }
+    }
+
+    /**
+     * Compares {@code ist} with the golden file {@code name}, or rewrites the golden file with {@code --aktualisiere}.
+     */
+    private void vergleiche(String name, String ist) throws IOException {
+        Path golden = GOLDEN.resolve(name + ".golden");
+        ist = ist.replace(temp.toString(), "$TEMP");
+        if (aktualisiere) {
+            Files.writeString(golden, ist);
+            System.out.println("UPDATED " + golden);
+            return;
+        }
+        String erwartet = Files.exists(golden) ? Files.readString(golden) : "";
+        String unterschied = "";
+        if (!erwartet.equals(ist)) {
+            String[] e = erwartet.split("\n", -1);
+            String[] i = ist.split("\n", -1);
+            int zeile = 0;
+            while (zeile < e.length && zeile < i.length && e[zeile].equals(i[zeile])) {
+                zeile++;
+            }
+            unterschied = "line " + (zeile + 1) + " is\n  " + (zeile < i.length ? i[zeile] : "<end of output>")
+                    + "\ninstead of\n  " + (zeile < e.length ? e[zeile] : "<end of file>");
+        }
+        pruefe(golden.toString(), erwartet.equals(ist), unterschied);
+    }
+
+    private void pruefe(String name, boolean ok, String detail) {
+        if (ok) {
+            System.out.println("PASS " + name);
+        } else {
+            fehlgeschlagen++;
+            System.out.println("FAIL " + name + ": " + detail);
+        }
+    }
+
+    private static String zeilen(List<Entry> entries) {
+        StringBuilder text = new StringBuilder();
+        for (Entry entry : entries) {
+            text.append(zeile(entry)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static List<Entry> liste(Stream<Entry> stream) {
+        try (stream) {
+            return stream.toList();
+        }
+    }
+
+    private static List<Entry> zeilen(EntryTable tabelle) {
+        List<Entry> entries = new ArrayList<>(tabelle.size());
+        for (int i = 0; i < tabelle.size(); i++) {
+            entries.add(tabelle.get(i));
+        }
+        return entries;
+    }
+
+    private static String zeile(Entry entry) {
+        return entry.getId() + "|" + entry.getStudentName() + "|" + entry.getHaus() + "|" + entry.getLehrerName() + "|"
+                + entry.getPunkte() + "|" + (entry.getZeitpunkt() == null ? "" : entry.getZeitpunkt());
+    }
+
+    private static String fehler(Exception e) {
+        Throwable ursache = e instanceof UncheckedIOException ? e.getCause() : e;
+        return ursache.getClass().getSimpleName() + ": " + ursache.getMessage();
+    }
+}